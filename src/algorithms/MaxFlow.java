@@ -0,0 +1,314 @@
+package algorithms;
+
+import graphs.Edge;
+import structures.DirectedGraph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Computes maximum flows and minimum cuts with Dinic's algorithm, treating each edge
+ * weight of a DirectedGraph as the capacity of that edge.
+ *
+ * The residual network is stored in flat primitive arrays indexed by matrix index: arcs
+ * are grouped by tail vertex (start/to/capacity), and every edge owns a forward arc and
+ * a paired reverse arc. The arrays are built once and kept as a workspace, so repeated
+ * solves on an unchanged graph only reset the residual capacities. If the graph version
+ * moves, the next solve rebuilds the arcs, reusing the arrays when they are big enough.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class MaxFlow<V>
+{
+    private final DirectedGraph<V> graph;
+    private long builtVersion = -1;
+
+    //residual network
+    private int nodes = 0;
+    private int arcs = 0;
+    private int[] start = new int[0];
+    private int[] to = new int[0];
+    private int[] reverse = new int[0];
+    private long[] capacity = new long[0];
+    private long[] residual = new long[0];
+    private boolean[] forward = new boolean[0];
+
+    //per-solve scratch space
+    private int[] level = new int[0];
+    private int[] current = new int[0];
+    private int[] queue = new int[0];
+    private int[] path = new int[0];
+    private int lastSource = -1;
+
+    /**
+     * Creates a solver for a graph.
+     *
+     * @param graph the graph whose edge weights are capacities
+     */
+    public MaxFlow(DirectedGraph<V> graph)
+    {
+        this.graph = graph;
+    }
+
+    /**
+     * Computes the maximum flow between two vertices.
+     *
+     * @param source the source vertex
+     * @param sink the sink vertex
+     * @return the value of the maximum flow
+     */
+    public long maxFlow(V source, V sink)
+    {
+        int s = graph.indexOf(source), t = graph.indexOf(sink);
+        if (s < 0 || t < 0)
+        {
+            throw new IllegalArgumentException("Source and sink must be in the graph");
+        }
+        if (s == t)
+        {
+            throw new IllegalArgumentException("Source and sink must be different vertices");
+        }
+
+        prepare();
+        lastSource = s;
+        long flow = 0;
+        while (buildLevels(s, t))
+        {
+            System.arraycopy(start, 0, current, 0, nodes);
+            flow += blockingFlow(s, t);
+        }
+        return flow;
+    }
+
+    /**
+     * Returns the vertices on the source side of a minimum cut, which are the vertices
+     * still reachable from the source in the residual network of the last solve.
+     *
+     * @return the source side of the cut
+     */
+    public Set<V> minCutSourceSide()
+    {
+        checkSolved();
+        Set<V> side = new HashSet<>();
+        markResidualReachable();
+        for (int v = 0; v < nodes; v++)
+        {
+            if (level[v] >= 0)
+            {
+                side.add(graph.vertexAt(v));
+            }
+        }
+        return side;
+    }
+
+    /**
+     * Returns the edges of a minimum cut of the last solve. Their weights add up to
+     * the maximum flow.
+     *
+     * @return the cut edges
+     */
+    public Set<Edge<V>> minCutEdges()
+    {
+        checkSolved();
+        markResidualReachable();
+        Set<Edge<V>> cut = new HashSet<>();
+        for (int v = 0; v < nodes; v++)
+        {
+            for (int arc = start[v]; level[v] >= 0 && arc < start[v + 1]; arc++)
+            {
+                if (forward[arc] && level[to[arc]] < 0)
+                {
+                    cut.add(new Edge<>(graph.vertexAt(v), graph.vertexAt(to[arc]), (int) capacity[arc]));
+                }
+            }
+        }
+        return cut;
+    }
+
+    private void checkSolved()
+    {
+        if (lastSource < 0 || builtVersion != graph.version())
+        {
+            throw new IllegalStateException("Call maxFlow() on the current graph first");
+        }
+    }
+
+    //builds or resets the residual network
+    private void prepare()
+    {
+        if (builtVersion != graph.version())
+        {
+            build();
+        }
+        System.arraycopy(capacity, 0, residual, 0, arcs);
+    }
+
+    private void build()
+    {
+        nodes = graph.capacity();
+        int[] degree = new int[nodes + 1];
+        int edges = 0;
+        for (int v = 0; v < nodes; v++)
+        {
+            for (int w = 0; w < nodes; w++)
+            {
+                if (v != w && graph.weightAt(v, w) > -1)
+                {
+                    degree[v]++;
+                    degree[w]++;
+                    edges++;
+                }
+            }
+        }
+
+        arcs = edges * 2;
+        start = grow(start, nodes + 1);
+        to = grow(to, arcs);
+        reverse = grow(reverse, arcs);
+        capacity = growLong(capacity, arcs);
+        residual = growLong(residual, arcs);
+        forward = forward.length >= arcs ? forward : new boolean[arcs];
+        level = grow(level, nodes);
+        current = grow(current, nodes + 1);
+        queue = grow(queue, nodes);
+        path = grow(path, nodes);
+
+        start[0] = 0;
+        for (int v = 0; v < nodes; v++)
+        {
+            start[v + 1] = start[v] + degree[v];
+        }
+
+        //place each forward arc and its reverse arc, using current[] as fill pointers
+        System.arraycopy(start, 0, current, 0, nodes + 1);
+        for (int v = 0; v < nodes; v++)
+        {
+            for (int w = 0; w < nodes; w++)
+            {
+                int weight = graph.weightAt(v, w);
+                if (v != w && weight > -1)
+                {
+                    int arc = current[v]++, backward = current[w]++;
+                    to[arc] = w;
+                    capacity[arc] = weight;
+                    reverse[arc] = backward;
+                    forward[arc] = true;
+                    to[backward] = v;
+                    capacity[backward] = 0;
+                    reverse[backward] = arc;
+                    forward[backward] = false;
+                }
+            }
+        }
+        builtVersion = graph.version();
+    }
+
+    //breadth-first search from the source over arcs with room left
+    private boolean buildLevels(int s, int t)
+    {
+        Arrays.fill(level, 0, nodes, -1);
+        int head = 0, tail = 0;
+        level[s] = 0;
+        queue[tail++] = s;
+        while (head < tail)
+        {
+            int v = queue[head++];
+            for (int arc = start[v]; arc < start[v + 1]; arc++)
+            {
+                int w = to[arc];
+                if (residual[arc] > 0 && level[w] < 0)
+                {
+                    level[w] = level[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return level[t] >= 0;
+    }
+
+    //finds augmenting paths in the level graph with an explicit path stack
+    private long blockingFlow(int s, int t)
+    {
+        long flow = 0;
+        int depth = 0;
+        int v = s;
+        while (true)
+        {
+            if (v == t)
+            {
+                long bottleneck = Long.MAX_VALUE;
+                for (int i = 0; i < depth; i++)
+                {
+                    bottleneck = Math.min(bottleneck, residual[path[i]]);
+                }
+                for (int i = 0; i < depth; i++)
+                {
+                    residual[path[i]] -= bottleneck;
+                    residual[reverse[path[i]]] += bottleneck;
+                }
+                flow += bottleneck;
+                depth = 0;
+                v = s;
+                continue;
+            }
+
+            //advance along the first usable arc, skipping used-up ones for good
+            int arc = current[v];
+            while (arc < start[v + 1] && (residual[arc] == 0 || level[to[arc]] != level[v] + 1))
+            {
+                arc++;
+            }
+            current[v] = arc;
+            if (arc < start[v + 1])
+            {
+                path[depth++] = arc;
+                v = to[arc];
+                continue;
+            }
+
+            //dead end: retreat and never come back to this vertex in this phase
+            if (depth == 0)
+            {
+                return flow;
+            }
+            level[v] = -1;
+            int last = path[--depth];
+            v = to[reverse[last]];
+            current[v]++;
+        }
+    }
+
+    //marks vertices reachable from the last source in the residual network with level >= 0
+    private void markResidualReachable()
+    {
+        Arrays.fill(level, 0, nodes, -1);
+        int head = 0, tail = 0;
+        level[lastSource] = 0;
+        queue[tail++] = lastSource;
+        while (head < tail)
+        {
+            int v = queue[head++];
+            for (int arc = start[v]; arc < start[v + 1]; arc++)
+            {
+                if (residual[arc] > 0 && level[to[arc]] < 0)
+                {
+                    level[to[arc]] = level[v] + 1;
+                    queue[tail++] = to[arc];
+                }
+            }
+        }
+    }
+
+    private static int[] grow(int[] array, int size)
+    {
+        return array.length >= size ? array : new int[size];
+    }
+
+    private static long[] growLong(long[] array, int size)
+    {
+        return array.length >= size ? array : new long[size];
+    }
+}
@@ -0,0 +1,353 @@
+package algorithms;
+
+import graphs.Edge;
+import structures.DirectedGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds minimum spanning arborescences (directed spanning trees where every vertex is
+ * reached from one root) with the Chu-Liu/Edmonds algorithm.
+ *
+ * Each round picks the cheapest incoming edge of every vertex. If those edges contain
+ * cycles, every cycle is contracted into a single vertex, the weights of edges entering
+ * it are reduced by the edge they would replace, and the next round runs on the smaller
+ * graph. Once no cycles are left the rounds are unwound, and each cycle keeps all of its
+ * edges except the one replaced by the edge entering it. Every round is stored as flat
+ * edge arrays in a workspace kept per contraction level, and the workspaces only grow, so
+ * repeated solves reuse the arrays of earlier ones instead of allocating new ones. The
+ * edge list taken from the graph is kept between solves and only rebuilt when the graph
+ * version changes.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class MinimumArborescence<V>
+{
+    private static final int NONE = -1;
+
+    private final DirectedGraph<V> graph;
+    private long builtVersion = -1;
+
+    //edges of the graph in compact vertex numbering
+    private int[] vertexIndex = new int[0];
+    private int[] compact = new int[0];
+    private int vertexCount = 0;
+    private int edgeCount = 0;
+    private int[] edgeFrom = new int[0];
+    private int[] edgeTo = new int[0];
+    private long[] edgeWeight = new long[0];
+
+    //one reusable workspace per contraction level
+    private final List<Round> levels = new ArrayList<>();
+
+    private long totalWeight = 0;
+
+    /**
+     * Creates a solver for a graph.
+     *
+     * @param graph the graph whose edge weights are edge costs
+     */
+    public MinimumArborescence(DirectedGraph<V> graph)
+    {
+        this.graph = graph;
+    }
+
+    /**
+     * Finds a minimum-weight set of edges that reaches every vertex from the root.
+     *
+     * @param root the root vertex
+     * @return the arborescence edges, or null if some vertex cannot be reached from the root
+     */
+    public Set<Edge<V>> solve(V root)
+    {
+        int rootIndex = graph.indexOf(root);
+        if (rootIndex < 0)
+        {
+            throw new IllegalArgumentException("Root must be in the graph: " + root);
+        }
+        if (builtVersion != graph.version())
+        {
+            build();
+        }
+
+        Round round = level(0);
+        round.reset(vertexCount, compact[rootIndex], edgeCount);
+        for (int e = 0; e < edgeCount; e++)
+        {
+            if (edgeTo[e] != round.root && edgeFrom[e] != edgeTo[e])
+            {
+                round.add(edgeFrom[e], edgeTo[e], edgeWeight[e], e);
+            }
+        }
+
+        //contract cycles until the cheapest incoming edges form a tree
+        int depth = 0;
+        while (true)
+        {
+            if (!round.chooseIncoming())
+            {
+                totalWeight = 0;
+                return null;
+            }
+            Round next = level(depth + 1);
+            if (!round.contract(next))
+            {
+                break;
+            }
+            round = next;
+            depth++;
+        }
+
+        //unwind: the last round's choices are final, earlier rounds add their cycle edges
+        Arrays.fill(round.chosen, 0, round.size, false);
+        for (int v = 0; v < round.nodes; v++)
+        {
+            if (v != round.root)
+            {
+                round.chosen[round.incoming[v]] = true;
+            }
+        }
+        for (int r = depth; r > 0; r--)
+        {
+            levels.get(r - 1).expand(levels.get(r));
+        }
+
+        Set<Edge<V>> tree = new HashSet<>();
+        Round first = levels.get(0);
+        totalWeight = 0;
+        for (int e = 0; e < first.size; e++)
+        {
+            if (first.chosen[e])
+            {
+                int original = first.parent[e];
+                int source = vertexIndex[edgeFrom[original]], destination = vertexIndex[edgeTo[original]];
+                tree.add(new Edge<>(graph.vertexAt(source), graph.vertexAt(destination),
+                        graph.weightAt(source, destination)));
+                totalWeight += edgeWeight[original];
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Returns the total weight of the last arborescence found.
+     * @return the total weight, or 0 if the last solve found none
+     */
+    public long totalWeight()
+    {
+        return totalWeight;
+    }
+
+    //the workspace of a contraction level, created the first time that depth is reached
+    private Round level(int depth)
+    {
+        while (levels.size() <= depth)
+        {
+            levels.add(new Round());
+        }
+        return levels.get(depth);
+    }
+
+    //copies the graph's edges into flat arrays over compact vertex numbers
+    private void build()
+    {
+        int capacity = graph.capacity();
+        compact = compact.length >= capacity ? compact : new int[capacity];
+        vertexIndex = vertexIndex.length >= capacity ? vertexIndex : new int[capacity];
+        vertexCount = 0;
+        for (int i = 0; i < capacity; i++)
+        {
+            compact[i] = graph.vertexAt(i) == null ? NONE : vertexCount;
+            if (compact[i] != NONE)
+            {
+                vertexIndex[vertexCount++] = i;
+            }
+        }
+
+        edgeCount = 0;
+        for (int i = 0; i < capacity; i++)
+        {
+            for (int j = 0; compact[i] != NONE && j < capacity; j++)
+            {
+                int weight = graph.weightAt(i, j);
+                if (weight > -1)
+                {
+                    if (edgeCount == edgeFrom.length)
+                    {
+                        int size = Math.max(16, edgeCount * 2);
+                        edgeFrom = Arrays.copyOf(edgeFrom, size);
+                        edgeTo = Arrays.copyOf(edgeTo, size);
+                        edgeWeight = Arrays.copyOf(edgeWeight, size);
+                    }
+                    edgeFrom[edgeCount] = compact[i];
+                    edgeTo[edgeCount] = compact[j];
+                    edgeWeight[edgeCount] = weight;
+                    edgeCount++;
+                }
+            }
+        }
+        builtVersion = graph.version();
+    }
+
+    //one contraction round: a graph over nodes 0..nodes-1 as flat edge arrays, whose
+    //arrays are kept and reused by later rounds at the same level
+    private static class Round
+    {
+        private int nodes;
+        private int root;
+        private int size = 0;
+        private int[] from = new int[0];
+        private int[] to = new int[0];
+        private long[] weight = new long[0];
+        private int[] parent = new int[0]; //edge in the previous round, or in the original edge list
+        private boolean[] chosen = new boolean[0];
+
+        private int[] incoming = new int[0];
+        private int[] cycle = new int[0]; //cycle number of each node, or NONE
+        private int[] next = new int[0]; //node number in the next round
+        private int[] visitedBy = new int[0];
+        private boolean[] entered = new boolean[0];
+
+        //empties the round for a new graph, growing the arrays if they are too small
+        private void reset(int nodes, int root, int capacity)
+        {
+            this.nodes = nodes;
+            this.root = root;
+            size = 0;
+            if (from.length < capacity)
+            {
+                from = new int[capacity];
+                to = new int[capacity];
+                weight = new long[capacity];
+                parent = new int[capacity];
+                chosen = new boolean[capacity];
+            }
+            if (incoming.length < nodes)
+            {
+                incoming = new int[nodes];
+                cycle = new int[nodes];
+                next = new int[nodes];
+                visitedBy = new int[nodes];
+                entered = new boolean[nodes];
+            }
+        }
+
+        private void add(int source, int destination, long cost, int parentEdge)
+        {
+            from[size] = source;
+            to[size] = destination;
+            weight[size] = cost;
+            parent[size] = parentEdge;
+            size++;
+        }
+
+        //picks the cheapest edge into every non-root node, false if one has none
+        private boolean chooseIncoming()
+        {
+            Arrays.fill(incoming, 0, nodes, NONE);
+            for (int e = 0; e < size; e++)
+            {
+                int v = to[e];
+                if (incoming[v] == NONE || weight[e] < weight[incoming[v]])
+                {
+                    incoming[v] = e;
+                }
+            }
+            for (int v = 0; v < nodes; v++)
+            {
+                if (v != root && incoming[v] == NONE)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        //contracts the cycles among the chosen edges into the next round, false if there are none
+        private boolean contract(Round contracted)
+        {
+            Arrays.fill(cycle, 0, nodes, NONE);
+            Arrays.fill(next, 0, nodes, NONE);
+            Arrays.fill(visitedBy, 0, nodes, NONE);
+
+            int cycles = 0;
+            for (int v = 0; v < nodes; v++)
+            {
+                //follow chosen edges backwards until the root or an already visited node
+                int u = v;
+                while (u != root && visitedBy[u] == NONE)
+                {
+                    visitedBy[u] = v;
+                    u = from[incoming[u]];
+                }
+                if (u != root && visitedBy[u] == v && next[u] == NONE)
+                {
+                    //u is on a new cycle
+                    for (int x = from[incoming[u]]; ; x = from[incoming[x]])
+                    {
+                        cycle[x] = cycles;
+                        next[x] = cycles;
+                        if (x == u)
+                        {
+                            break;
+                        }
+                    }
+                    cycles++;
+                }
+            }
+            if (cycles == 0)
+            {
+                return false;
+            }
+
+            int count = cycles;
+            for (int v = 0; v < nodes; v++)
+            {
+                if (next[v] == NONE)
+                {
+                    next[v] = count++;
+                }
+            }
+
+            contracted.reset(count, next[root], size);
+            for (int e = 0; e < size; e++)
+            {
+                int source = next[from[e]], destination = next[to[e]];
+                if (source != destination && destination != contracted.root)
+                {
+                    contracted.add(source, destination, weight[e] - weight[incoming[to[e]]], e);
+                }
+            }
+            return true;
+        }
+
+        //maps the next round's chosen edges back here and adds the kept cycle edges
+        private void expand(Round contracted)
+        {
+            Arrays.fill(chosen, 0, size, false);
+            Arrays.fill(entered, 0, nodes, false);
+            for (int e = 0; e < contracted.size; e++)
+            {
+                if (contracted.chosen[e])
+                {
+                    int mine = contracted.parent[e];
+                    chosen[mine] = true;
+                    entered[to[mine]] = true;
+                }
+            }
+            for (int v = 0; v < nodes; v++)
+            {
+                if (cycle[v] != NONE && !entered[v])
+                {
+                    chosen[incoming[v]] = true;
+                }
+            }
+        }
+    }
+}
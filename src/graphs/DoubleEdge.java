@@ -0,0 +1,87 @@
+package graphs;
+
+import java.util.Objects;
+
+/**
+ * Represents a directed edge with a double weight. Like Edge, two edges are
+ * equal when they join the same vertices, regardless of weight.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class DoubleEdge<V>
+{
+    private final V source;
+    private final V destination;
+    private final double weight;
+
+    /**
+     * Creates a new edge.
+     *
+     * @param source the source vertex
+     * @param destination the destination vertex
+     * @param weight the weight of the edge
+     */
+    public DoubleEdge(V source, V destination, double weight)
+    {
+        this.source = source;
+        this.destination = destination;
+        this.weight = weight;
+    }
+
+    /**
+     * Getter for the source vertex.
+     * @return the source vertex
+     */
+    public V getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Getter for the destination vertex.
+     * @return the destination vertex
+     */
+    public V getDestination()
+    {
+        return destination;
+    }
+
+    /**
+     * Getter for the edge weight.
+     * @return the edge weight
+     */
+    public double getWeight()
+    {
+        return weight;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass())
+        {
+            return false;
+        }
+        DoubleEdge<?> edge = (DoubleEdge<?>) other;
+        return Objects.equals(source, edge.source) &&
+                Objects.equals(destination, edge.destination);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(source, destination);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "" + source + " => " + destination + " (" + weight + ")";
+    }
+}
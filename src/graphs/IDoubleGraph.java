@@ -0,0 +1,109 @@
+package graphs;
+
+import java.util.Set;
+
+/**
+ * Represents the basic operations of a graph structure with double edge weights.
+ *
+ * Edge existence is tracked separately from the weight, so every double value
+ * other than NaN, including negative numbers, is a valid weight.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of vertices in the graph
+ */
+public interface IDoubleGraph<V>
+{
+    /**
+     * Adds a new vertex to the graph. If the vertex already
+     * exists, then no change is made to the graph.
+     *
+     * @param vertex the new vertex
+     * @return true if the vertex was added, otherwise false
+     */
+    boolean addVertex(V vertex);
+
+    /**
+     * Adds a new edge to the graph. If the edge already exists,
+     * then no change is made to the graph.
+     *
+     * Edges are considered to be directed.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if it is NaN
+     * @return true if the edge was added, otherwise false
+     */
+    boolean addEdge(V source, V destination, double weight);
+
+    /**
+     * Returns the number of vertices in the graph.
+     * @return the vertex count.
+     */
+    int vertexSize();
+
+    /**
+     * Returns the number of edges in the graph.
+     * @return the edge count
+     */
+    int edgeSize();
+
+    /**
+     * Reports whether a vertex is in the graph or not.
+     * @param vertex a vertex to search for
+     * @return true if the vertex is in the graph, or false otherwise
+     */
+    boolean containsVertex(V vertex);
+
+    /**
+     * Reports whether an edge is in the graph or not.
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return true if edge is in the graph, or false otherwise
+     */
+    boolean containsEdge(V source, V destination);
+
+    /**
+     * Returns the edge weight of an edge in the graph. Use containsEdge()
+     * to check for the edge first, since there is no missing-edge value.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the edge weight, throws a NoSuchElementException if the edge is not found
+     */
+    double edgeWeight(V source, V destination);
+
+    /**
+     * Returns a set with all vertices in the graph.
+     * @return a vertex set
+     */
+    Set<V> vertices();
+
+    /**
+     * Returns a set with all edges in the graph.
+     * @return an edge set
+     */
+    Set<DoubleEdge<V>> edges();
+
+    /**
+     * Removes a vertex, and every edge touching it, from the graph.
+     *
+     * @param vertex the vertex to search for and remove
+     * @return true if the vertex was found and removed, otherwise false
+     */
+    boolean removeVertex(V vertex);
+
+    /**
+     * Removes an edge from the graph.
+     *
+     * @param source the source vertex of the edge to search for and remove
+     * @param destination the destination vertex of the edge to search for and remove
+     * @return true if the edge was found and removed, otherwise false
+     */
+    boolean removeEdge(V source, V destination);
+
+    /**
+     * Removes all vertices and edges from the graph.
+     */
+    void clear();
+}
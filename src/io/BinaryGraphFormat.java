@@ -0,0 +1,372 @@
+package io;
+
+import graphs.Edge;
+import graphs.IGraph;
+import structures.DirectedGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads and writes graphs in a compact columnar binary format. All numbers are big-endian.
+ *
+ * <pre>
+ * int   magic ("GRPB")
+ * int   format version
+ * int   vertex count (n)
+ * long  edge count (m)
+ * n x   (int length, UTF-8 bytes)   vertex dictionary, ids 0..n-1
+ * m x   int                         source ids
+ * m x   int                         destination ids
+ * m x   int                         weights
+ * </pre>
+ *
+ * Only the vertex dictionary is held in memory while reading; the three edge columns are
+ * streamed side by side through small buffers, so the edge data can be much larger than
+ * the heap.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public final class BinaryGraphFormat
+{
+    private static final int MAGIC = 0x47525042;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int COLUMN_BUFFER_SIZE = 1 << 18;
+
+    private BinaryGraphFormat()
+    {
+    }
+
+    /**
+     * Writes a graph to a file, replacing the file if it exists.
+     *
+     * @param graph the graph to write
+     * @param path the file to write
+     * @param encoder turns a vertex into its dictionary name
+     * @param <V> the type of the vertices
+     * @return the number of edges written
+     * @throws IOException if the file cannot be written
+     */
+    public static <V> long write(IGraph<V> graph, Path path, Function<V, String> encoder)
+            throws IOException
+    {
+        EdgeColumns columns = EdgeColumns.of(graph);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(COLUMN_BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(columns.names.size()).putLong(columns.size);
+
+            for (V vertex : columns.<V>names())
+            {
+                byte[] name = encoder.apply(vertex).getBytes(StandardCharsets.UTF_8);
+                ensureRemaining(channel, buffer, 4);
+                buffer.putInt(name.length);
+                for (int offset = 0; offset < name.length; )
+                {
+                    ensureRemaining(channel, buffer, 1);
+                    int chunk = Math.min(buffer.remaining(), name.length - offset);
+                    buffer.put(name, offset, chunk);
+                    offset += chunk;
+                }
+            }
+
+            for (int[] column : new int[][] {columns.sources, columns.destinations, columns.weights})
+            {
+                for (int i = 0; i < columns.size; i++)
+                {
+                    ensureRemaining(channel, buffer, 4);
+                    buffer.putInt(column[i]);
+                }
+            }
+            drain(channel, buffer);
+            return columns.size;
+        }
+    }
+
+    /**
+     * Reads every edge in a file into a graph, adding the dictionary vertices first.
+     *
+     * @param path the file to read
+     * @param graph the graph to add vertices and edges to
+     * @param decoder turns a dictionary name into a vertex
+     * @param listener notified after every column buffer, or null for none
+     * @param <V> the type of the vertices
+     * @return the number of edges read
+     * @throws IOException if the file cannot be read or is not in this format
+     */
+    public static <V> long read(Path path, IGraph<V> graph, Function<String, V> decoder,
+                                ProgressListener listener) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long totalBytes = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC)
+            {
+                throw new IOException(path + " is not a binary graph file");
+            }
+            int version = header.getInt();
+            if (version != VERSION)
+            {
+                throw new IOException("Unsupported binary graph version " + version);
+            }
+            int vertexCount = header.getInt();
+            long edgeCount = header.getLong();
+            //every name takes at least its 4-byte length and every edge 12 bytes
+            if (vertexCount < 0 || edgeCount < 0 || vertexCount > (totalBytes - HEADER_BYTES) / 4
+                    || edgeCount > (totalBytes - HEADER_BYTES) / 12)
+            {
+                throw new IOException(path + " has invalid vertex or edge counts");
+            }
+
+            //read the dictionary sequentially
+            List<V> vertices = new ArrayList<>(vertexCount);
+            Column dictionary = new Column(channel, HEADER_BYTES, COLUMN_BUFFER_SIZE);
+            for (int i = 0; i < vertexCount; i++)
+            {
+                int length = dictionary.nextInt();
+                if (length < 0 || length > totalBytes - dictionary.position())
+                {
+                    throw new IOException("Vertex " + i + " has an invalid name length");
+                }
+                byte[] name = new byte[length];
+                dictionary.next(name);
+                V vertex = decoder.apply(new String(name, StandardCharsets.UTF_8));
+                vertices.add(vertex);
+                graph.addVertex(vertex);
+            }
+
+            //stream the three edge columns side by side
+            long columnBytes = edgeCount * 4;
+            long sourceStart = dictionary.position();
+            if (sourceStart + columnBytes * 3 > totalBytes)
+            {
+                throw new IOException(path + " is truncated");
+            }
+            Column sources = new Column(channel, sourceStart, COLUMN_BUFFER_SIZE);
+            Column destinations = new Column(channel, sourceStart + columnBytes, COLUMN_BUFFER_SIZE);
+            Column weights = new Column(channel, sourceStart + columnBytes * 2, COLUMN_BUFFER_SIZE);
+            long edgesPerBuffer = COLUMN_BUFFER_SIZE / 4;
+            for (long i = 0; i < edgeCount; i++)
+            {
+                int source = sources.nextInt(), destination = destinations.nextInt();
+                int weight = weights.nextInt();
+                if (source < 0 || source >= vertexCount || destination < 0 || destination >= vertexCount)
+                {
+                    throw new IOException("Edge " + i + " has an invalid vertex id");
+                }
+                //-1 marks a missing edge in the graphs, so negative weights are corrupt
+                if (weight < 0)
+                {
+                    throw new IOException("Edge " + i + " has an invalid weight");
+                }
+                graph.addEdge(vertices.get(source), vertices.get(destination), weight);
+
+                if (listener != null && ((i + 1) % edgesPerBuffer == 0 || i + 1 == edgeCount))
+                {
+                    listener.progress(sourceStart + (i + 1) * 12, totalBytes, i + 1);
+                }
+            }
+            return edgeCount;
+        }
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes)
+            throws IOException
+    {
+        if (buffer.remaining() < bytes)
+        {
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            int count = channel.read(buffer, position);
+            if (count < 0)
+            {
+                throw new IOException("Unexpected end of file");
+            }
+            position += count;
+        }
+    }
+
+    //a buffered cursor over one region of the file, using positional reads
+    private static class Column
+    {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long filePosition;
+
+        private Column(FileChannel channel, long start, int bufferSize)
+        {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.buffer.limit(0);
+            this.filePosition = start;
+        }
+
+        private int nextInt() throws IOException
+        {
+            if (buffer.remaining() < 4)
+            {
+                fill();
+                if (buffer.remaining() < 4)
+                {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+            return buffer.getInt();
+        }
+
+        private void next(byte[] bytes) throws IOException
+        {
+            for (int offset = 0; offset < bytes.length; )
+            {
+                if (!buffer.hasRemaining())
+                {
+                    fill();
+                    if (!buffer.hasRemaining())
+                    {
+                        throw new IOException("Unexpected end of file");
+                    }
+                }
+                int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.get(bytes, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        //the file position of the next unread byte
+        private long position()
+        {
+            return filePosition - buffer.remaining();
+        }
+
+        private void fill() throws IOException
+        {
+            buffer.compact();
+            int count = channel.read(buffer, filePosition);
+            if (count > 0)
+            {
+                filePosition += count;
+            }
+            buffer.flip();
+        }
+    }
+
+    //edges of a graph split into id columns, in dictionary order; shared with GraphImage
+    static class EdgeColumns
+    {
+        final List<Object> names = new ArrayList<>();
+        int[] sources;
+        int[] destinations;
+        int[] weights;
+        int size = 0;
+
+        @SuppressWarnings("unchecked")
+        <V> List<V> names()
+        {
+            return (List<V>) names;
+        }
+
+        static <V> EdgeColumns of(IGraph<V> graph)
+        {
+            EdgeColumns columns = new EdgeColumns();
+            if (graph instanceof DirectedGraph)
+            {
+                //assign dictionary ids by matrix index and scan the rows directly
+                DirectedGraph<V> matrix = (DirectedGraph<V>) graph;
+                int[] ids = new int[matrix.capacity()];
+                for (int i = 0; i < ids.length; i++)
+                {
+                    V vertex = matrix.vertexAt(i);
+                    ids[i] = vertex == null ? -1 : columns.names.size();
+                    if (vertex != null)
+                    {
+                        columns.names.add(vertex);
+                    }
+                }
+                columns.allocate(graph.edgeSize());
+                for (int i = 0; i < ids.length; i++)
+                {
+                    for (int j = 0; ids[i] >= 0 && j < ids.length; j++)
+                    {
+                        int weight = matrix.weightAt(i, j);
+                        if (weight > -1)
+                        {
+                            columns.add(ids[i], ids[j], weight);
+                        }
+                    }
+                }
+            }
+            else
+            {
+                Map<V, Integer> ids = new HashMap<>();
+                for (V vertex : graph.vertices())
+                {
+                    ids.put(vertex, columns.names.size());
+                    columns.names.add(vertex);
+                }
+                columns.allocate(graph.edgeSize());
+                for (Edge<V> edge : graph.edges())
+                {
+                    columns.add(ids.get(edge.getSource()), ids.get(edge.getDestination()),
+                            edge.getWeight());
+                }
+            }
+            return columns;
+        }
+
+        private void allocate(int expected)
+        {
+            int capacity = Math.max(expected, 16);
+            sources = new int[capacity];
+            destinations = new int[capacity];
+            weights = new int[capacity];
+        }
+
+        private void add(int source, int destination, int weight)
+        {
+            if (size == sources.length)
+            {
+                int capacity = sources.length * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = source;
+            destinations[size] = destination;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
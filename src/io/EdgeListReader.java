@@ -0,0 +1,393 @@
+package io;
+
+import graphs.IGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+/**
+ * Streams edges from a text file into a graph. Each line holds a source, a destination
+ * and an optional weight, separated either by a delimiter character (CSV) or by runs of
+ * spaces and tabs (plain edge lists). Weights must be non-negative ints. Blank lines and
+ * lines starting with '#' or '%' are skipped. Quoted CSV fields are not supported.
+ *
+ * The file is read through a fixed-size buffer, so only the graph itself has to fit in
+ * memory. Fields are parsed in place: weights are read digit by digit, and vertex names
+ * are decoded into a reused CharBuffer that is handed to the vertex parser.
+ *
+ * @param <V> the type of the vertices
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class EdgeListReader<V>
+{
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final char WHITESPACE = ' ';
+
+    private final char delimiter;
+    private final Function<CharSequence, V> vertexParser;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final int[] fieldBounds = new int[6];
+    private CharBuffer token = CharBuffer.allocate(64);
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int defaultWeight = 1;
+    private boolean skipHeader = false;
+    private ProgressListener listener = null;
+
+    /**
+     * Creates a reader for the given field layout.
+     *
+     * @param delimiter the field delimiter, or ' ' to split on runs of spaces and tabs
+     * @param vertexParser turns a vertex field into a vertex; the character sequence is
+     *                     reused between calls, so the parser must not keep it
+     */
+    public EdgeListReader(char delimiter, Function<CharSequence, V> vertexParser)
+    {
+        this.delimiter = delimiter;
+        this.vertexParser = vertexParser;
+    }
+
+    /**
+     * Creates a reader for comma-separated files.
+     *
+     * @param vertexParser turns a vertex field into a vertex
+     * @param <V> the type of the vertices
+     * @return a CSV reader
+     */
+    public static <V> EdgeListReader<V> csv(Function<CharSequence, V> vertexParser)
+    {
+        return new EdgeListReader<>(',', vertexParser);
+    }
+
+    /**
+     * Creates a reader for whitespace-separated edge lists.
+     *
+     * @param vertexParser turns a vertex field into a vertex
+     * @param <V> the type of the vertices
+     * @return an edge list reader
+     */
+    public static <V> EdgeListReader<V> edgeList(Function<CharSequence, V> vertexParser)
+    {
+        return new EdgeListReader<>(WHITESPACE, vertexParser);
+    }
+
+    /**
+     * Parses vertex fields as strings.
+     * @return a vertex parser
+     */
+    public static Function<CharSequence, String> strings()
+    {
+        return CharSequence::toString;
+    }
+
+    /**
+     * Parses vertex fields as integer ids without creating an intermediate string.
+     * @return a vertex parser
+     */
+    public static Function<CharSequence, Integer> integers()
+    {
+        return sequence -> {
+            long value = parseLong(sequence);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            {
+                throw new NumberFormatException("Vertex id out of range: " + sequence);
+            }
+            return (int) value;
+        };
+    }
+
+    /**
+     * Sets the weight used for lines that only have two fields. Defaults to 1.
+     *
+     * @param defaultWeight the weight of unweighted edges
+     * @return this reader
+     */
+    public EdgeListReader<V> setDefaultWeight(int defaultWeight)
+    {
+        this.defaultWeight = defaultWeight;
+        return this;
+    }
+
+    /**
+     * Sets whether the first non-comment line is a header that should be skipped.
+     *
+     * @param skipHeader true to skip a header line
+     * @return this reader
+     */
+    public EdgeListReader<V> setSkipHeader(boolean skipHeader)
+    {
+        this.skipHeader = skipHeader;
+        return this;
+    }
+
+    /**
+     * Sets the size of the read buffer, which also limits the length of a single line.
+     *
+     * @param bufferSize the buffer size in bytes
+     * @return this reader
+     */
+    public EdgeListReader<V> setBufferSize(int bufferSize)
+    {
+        if (bufferSize < 16)
+        {
+            throw new IllegalArgumentException("Buffer size is too small: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Sets a listener that is notified after every buffer that is read.
+     *
+     * @param listener the progress listener, or null for none
+     * @return this reader
+     */
+    public EdgeListReader<V> setProgressListener(ProgressListener listener)
+    {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Reads every edge in a file into a graph. Vertices are added as they are seen.
+     *
+     * @param path the file to read
+     * @param graph the graph to add edges to
+     * @return the number of edge lines read
+     * @throws IOException if the file cannot be read or a line is malformed
+     */
+    public long read(Path path, IGraph<V> graph) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long totalBytes = channel.size();
+            long bytesRead = 0;
+            long edgesRead = 0;
+            long lineNumber = 0;
+            boolean headerPending = skipHeader;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+
+            boolean eof = false;
+            while (!eof)
+            {
+                int count = channel.read(buffer);
+                if (count < 0)
+                {
+                    eof = true;
+                }
+                else
+                {
+                    bytesRead += count;
+                }
+                buffer.flip();
+
+                //process every complete line in the buffer (and the last line at eof)
+                int lineStart = buffer.position();
+                int limit = buffer.limit();
+                for (int i = lineStart; i < limit || (eof && lineStart < limit); i++)
+                {
+                    if (i < limit && buffer.get(i) != '\n')
+                    {
+                        continue;
+                    }
+                    int lineEnd = Math.min(i, limit);
+                    lineNumber++;
+                    if (!isSkipped(buffer, lineStart, lineEnd))
+                    {
+                        if (headerPending)
+                        {
+                            headerPending = false;
+                        }
+                        else
+                        {
+                            readLine(buffer, lineStart, lineEnd, lineNumber, graph);
+                            edgesRead++;
+                        }
+                    }
+                    lineStart = i + 1;
+                }
+
+                if (!eof)
+                {
+                    buffer.position(Math.min(lineStart, limit));
+                    if (buffer.position() == 0 && buffer.limit() == buffer.capacity())
+                    {
+                        throw new IOException("Line " + (lineNumber + 1) + " is longer than the "
+                                + bufferSize + " byte buffer");
+                    }
+                    buffer.compact();
+                }
+
+                if (listener != null)
+                {
+                    listener.progress(bytesRead, totalBytes, edgesRead);
+                }
+            }
+            return edgesRead;
+        }
+    }
+
+    //true for blank and comment lines
+    private boolean isSkipped(ByteBuffer buffer, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            byte b = buffer.get(i);
+            if (b == '#' || b == '%')
+            {
+                return true;
+            }
+            if (!isBlank(b))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readLine(ByteBuffer buffer, int start, int end, long lineNumber, IGraph<V> graph)
+            throws IOException
+    {
+        //find up to three fields without allocating
+        int[] bounds = fieldBounds;
+        int fields = 0;
+        int position = start;
+        while (fields < 3)
+        {
+            while (position < end && isBlank(buffer.get(position)))
+            {
+                position++;
+            }
+            if (position >= end)
+            {
+                break;
+            }
+            int fieldStart = position;
+            while (position < end && !isDelimiter(buffer.get(position)))
+            {
+                position++;
+            }
+            int fieldEnd = position;
+            while (fieldEnd > fieldStart && isBlank(buffer.get(fieldEnd - 1)))
+            {
+                fieldEnd--;
+            }
+            bounds[fields * 2] = fieldStart;
+            bounds[fields * 2 + 1] = fieldEnd;
+            fields++;
+            if (position < end && delimiter != WHITESPACE)
+            {
+                position++; //skip the delimiter itself
+            }
+        }
+
+        if (fields < 2)
+        {
+            throw new IOException("Line " + lineNumber + " needs a source and a destination");
+        }
+
+        V source = vertexParser.apply(decode(buffer, bounds[0], bounds[1]));
+        V destination = vertexParser.apply(decode(buffer, bounds[2], bounds[3]));
+        int weight = defaultWeight;
+        if (fields == 3)
+        {
+            try
+            {
+                long value = parseLong(decode(buffer, bounds[4], bounds[5]));
+                //-1 marks a missing edge in the graphs, so negative weights are malformed
+                if (value < 0 || value > Integer.MAX_VALUE)
+                {
+                    throw new NumberFormatException("weight out of range");
+                }
+                weight = (int) value;
+            }
+            catch (NumberFormatException ex)
+            {
+                throw new IOException("Line " + lineNumber + " has an invalid weight", ex);
+            }
+        }
+
+        graph.addVertex(source);
+        graph.addVertex(destination);
+        graph.addEdge(source, destination, weight);
+    }
+
+    //decodes a UTF-8 field into the reused token buffer
+    private CharSequence decode(ByteBuffer buffer, int start, int end) throws IOException
+    {
+        int oldPosition = buffer.position(), oldLimit = buffer.limit();
+        try
+        {
+            if (token.capacity() < end - start)
+            {
+                token = CharBuffer.allocate(Math.max(end - start, token.capacity() * 2));
+            }
+            token.clear();
+            buffer.limit(end).position(start);
+            decoder.reset();
+            CoderResult result = decoder.decode(buffer, token, true);
+            if (result.isError())
+            {
+                result.throwException();
+            }
+            decoder.flush(token);
+            token.flip();
+            return token;
+        }
+        finally
+        {
+            buffer.limit(oldLimit).position(oldPosition);
+        }
+    }
+
+    private boolean isDelimiter(byte b)
+    {
+        return delimiter == WHITESPACE ? isBlank(b) : b == delimiter;
+    }
+
+    private static boolean isBlank(byte b)
+    {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    //parses a signed decimal number from a character sequence
+    static long parseLong(CharSequence sequence)
+    {
+        int length = sequence.length();
+        if (length == 0)
+        {
+            throw new NumberFormatException("Empty number");
+        }
+        int i = 0;
+        boolean negative = sequence.charAt(0) == '-';
+        if (negative || sequence.charAt(0) == '+')
+        {
+            i++;
+        }
+        if (i == length || length - i > 18)
+        {
+            throw new NumberFormatException("Invalid number: " + sequence);
+        }
+
+        long value = 0;
+        for (; i < length; i++)
+        {
+            char c = sequence.charAt(i);
+            if (c < '0' || c > '9')
+            {
+                throw new NumberFormatException("Invalid number: " + sequence);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,189 @@
+package io;
+
+import graphs.Edge;
+import graphs.IGraph;
+import structures.DirectedGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the edges of a graph as "source, destination, weight" lines. The output can be
+ * read back with EdgeListReader using the same delimiter.
+ *
+ * Vertex names are encoded once per vertex and weights are written digit by digit into
+ * a fixed-size buffer, so no strings are created per edge. DirectedGraph instances are
+ * written straight from their matrix rows instead of through edges().
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class EdgeListWriter
+{
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final char delimiter;
+    private final int bufferSize;
+    private ProgressListener listener = null;
+
+    /**
+     * Creates a writer that separates fields with the given delimiter.
+     *
+     * @param delimiter the field delimiter, for example ',' or '\t'
+     */
+    public EdgeListWriter(char delimiter)
+    {
+        this(delimiter, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer that separates fields with the given delimiter.
+     *
+     * @param delimiter the field delimiter, for example ',' or '\t'
+     * @param bufferSize the size of the write buffer in bytes
+     */
+    public EdgeListWriter(char delimiter, int bufferSize)
+    {
+        if (delimiter > 127)
+        {
+            throw new IllegalArgumentException("Delimiter must be an ASCII character");
+        }
+        this.delimiter = delimiter;
+        this.bufferSize = Math.max(bufferSize, 64);
+    }
+
+    /**
+     * Sets a listener that is notified after every buffer that is written.
+     *
+     * @param listener the progress listener, or null for none
+     * @return this writer
+     */
+    public EdgeListWriter setProgressListener(ProgressListener listener)
+    {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Writes every edge of a graph to a file, replacing the file if it exists.
+     * Vertex names come from each vertex's toString().
+     *
+     * @param graph the graph to write
+     * @param path the file to write
+     * @param <V> the type of the vertices
+     * @return the number of edges written
+     * @throws IOException if the file cannot be written
+     */
+    public <V> long write(IGraph<V> graph, Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            Output output = new Output(channel);
+            if (graph instanceof DirectedGraph)
+            {
+                DirectedGraph<V> matrix = (DirectedGraph<V>) graph;
+                byte[][] names = new byte[matrix.capacity()][];
+                for (int i = 0; i < names.length; i++)
+                {
+                    V vertex = matrix.vertexAt(i);
+                    if (vertex != null)
+                    {
+                        names[i] = String.valueOf(vertex).getBytes(StandardCharsets.UTF_8);
+                    }
+                }
+                for (int i = 0; i < names.length; i++)
+                {
+                    for (int j = 0; names[i] != null && j < names.length; j++)
+                    {
+                        int weight = matrix.weightAt(i, j);
+                        if (weight > -1)
+                        {
+                            output.line(names[i], names[j], weight);
+                        }
+                    }
+                }
+            }
+            else
+            {
+                for (Edge<V> edge : graph.edges())
+                {
+                    output.line(String.valueOf(edge.getSource()).getBytes(StandardCharsets.UTF_8),
+                            String.valueOf(edge.getDestination()).getBytes(StandardCharsets.UTF_8),
+                            edge.getWeight());
+                }
+            }
+            output.flush();
+            return output.edges;
+        }
+    }
+
+    //buffers encoded lines and flushes them to the channel
+    private class Output
+    {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        private final byte[] digits = new byte[11];
+        private long bytesWritten = 0;
+        private long edges = 0;
+
+        private Output(FileChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        private void line(byte[] source, byte[] destination, int weight) throws IOException
+        {
+            int length = source.length + destination.length + digits.length + 3;
+            if (buffer.remaining() < length)
+            {
+                flush();
+                if (buffer.remaining() < length)
+                {
+                    throw new IOException("Vertex names are longer than the write buffer");
+                }
+            }
+            buffer.put(source).put((byte) delimiter).put(destination).put((byte) delimiter);
+            putInt(weight);
+            buffer.put((byte) '\n');
+            edges++;
+        }
+
+        //writes a decimal int without going through a String
+        private void putInt(int value)
+        {
+            long remaining = value;
+            if (remaining < 0)
+            {
+                buffer.put((byte) '-');
+                remaining = -remaining;
+            }
+            int position = digits.length;
+            do
+            {
+                digits[--position] = (byte) ('0' + remaining % 10);
+                remaining /= 10;
+            }
+            while (remaining > 0);
+            buffer.put(digits, position, digits.length - position);
+        }
+
+        private void flush() throws IOException
+        {
+            buffer.flip();
+            while (buffer.hasRemaining())
+            {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+            if (listener != null)
+            {
+                listener.progress(bytesWritten, -1, edges);
+            }
+        }
+    }
+}
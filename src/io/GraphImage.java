@@ -0,0 +1,248 @@
+package io;
+
+import graphs.IGraph;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes and opens prebuilt, read-only graph images. An image holds everything a lookup
+ * needs already in its final form, so opening one maps the file and reads a 24-byte
+ * header, with no per-vertex work. All numbers are big-endian.
+ *
+ * <pre>
+ * int   magic ("GRPI")
+ * int   format version
+ * int   vertex count (n)
+ * long  edge count (m)
+ * int   hash slot count (s, a power of two)
+ * (n+1) x long   name offsets into the name bytes
+ * s x   (int hash, int id)   open-addressing table of name hashes, id -1 when empty
+ * (n+1) x long   row offsets into the edge columns
+ * m x   int      destination ids, sorted within each row
+ * m x   int      weights
+ *       bytes    UTF-8 vertex names, ids 0..n-1
+ * </pre>
+ *
+ * The hash of a vertex is the String.hashCode() of its name. Images are mapped as a
+ * single buffer, so they are limited to 2GB.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public final class GraphImage
+{
+    static final int MAGIC = 0x47525049;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int EMPTY = -1;
+
+    private GraphImage()
+    {
+    }
+
+    /**
+     * Writes a graph image, replacing the file if it exists.
+     *
+     * @param graph the graph to write
+     * @param path the file to write
+     * @param encoder turns a vertex into its name; names must be unique
+     * @param <V> the type of the vertices
+     * @return the number of edges written
+     * @throws IOException if the file cannot be written or the image would exceed 2GB
+     */
+    public static <V> long write(IGraph<V> graph, Path path, Function<V, String> encoder)
+            throws IOException
+    {
+        BinaryGraphFormat.EdgeColumns columns = BinaryGraphFormat.EdgeColumns.of(graph);
+        List<V> vertices = columns.names();
+        int n = vertices.size(), m = columns.size;
+
+        byte[][] names = new byte[n][];
+        int[] hashes = new int[n];
+        long nameBytes = 0;
+        for (int id = 0; id < n; id++)
+        {
+            String name = encoder.apply(vertices.get(id));
+            names[id] = name.getBytes(StandardCharsets.UTF_8);
+            hashes[id] = name.hashCode();
+            nameBytes += names[id].length;
+        }
+        int slots = slotCount(n);
+        Layout layout = new Layout(n, m, slots);
+        long size = layout.names + nameBytes;
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("Graph image would be " + size + " bytes, more than 2GB");
+        }
+
+        //group edges by source, then sort each row by destination
+        long[] rowOffsets = new long[n + 1];
+        for (int i = 0; i < m; i++)
+        {
+            rowOffsets[columns.sources[i] + 1]++;
+        }
+        for (int id = 0; id < n; id++)
+        {
+            rowOffsets[id + 1] += rowOffsets[id];
+        }
+        long[] cells = new long[m];
+        int[] fill = new int[n];
+        for (int i = 0; i < m; i++)
+        {
+            int source = columns.sources[i];
+            cells[(int) rowOffsets[source] + fill[source]++] =
+                    (long) columns.destinations[i] << 32 | (columns.weights[i] & 0xFFFFFFFFL);
+        }
+        for (int id = 0; id < n; id++)
+        {
+            Arrays.sort(cells, (int) rowOffsets[id], (int) rowOffsets[id + 1]);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            MappedByteBuffer image = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            image.putInt(MAGIC).putInt(VERSION).putInt(n).putLong(m).putInt(slots);
+
+            long offset = 0;
+            for (int id = 0; id < n; id++)
+            {
+                image.putLong(offset);
+                offset += names[id].length;
+            }
+            image.putLong(offset);
+
+            int table = (int) layout.hashTable;
+            for (int slot = 0; slot < slots; slot++)
+            {
+                image.putLong(table + slot * 8, EMPTY); //hash and id both -1
+            }
+            for (int id = 0; id < n; id++)
+            {
+                int slot = spread(hashes[id]) & (slots - 1);
+                while (image.getInt(table + slot * 8 + 4) != EMPTY)
+                {
+                    slot = (slot + 1) & (slots - 1);
+                }
+                image.putInt(table + slot * 8, hashes[id]);
+                image.putInt(table + slot * 8 + 4, id);
+            }
+
+            image.position((int) layout.rowOffsets);
+            for (long rowOffset : rowOffsets)
+            {
+                image.putLong(rowOffset);
+            }
+            for (long cell : cells)
+            {
+                image.putInt((int) (cell >>> 32));
+            }
+            for (long cell : cells)
+            {
+                image.putInt((int) cell);
+            }
+            for (byte[] name : names)
+            {
+                image.put(name);
+            }
+            image.force();
+        }
+        return m;
+    }
+
+    /**
+     * Maps a graph image. Only the header is read here; vertex names are decoded the
+     * first time each vertex is needed.
+     *
+     * @param path the image file
+     * @param encoder turns a vertex into its name, the same way it was written
+     * @param decoder turns a name back into a vertex
+     * @param <V> the type of the vertices
+     * @return a read-only graph backed by the file
+     * @throws IOException if the file cannot be read or is not a graph image
+     */
+    public static <V> MappedGraph<V> open(Path path, Function<V, String> encoder,
+                                          Function<String, V> decoder) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException(path + " is larger than 2GB");
+            }
+            if (size < HEADER_BYTES)
+            {
+                throw new IOException(path + " is not a graph image");
+            }
+            //the mapping stays valid after the channel is closed
+            MappedByteBuffer image = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (image.getInt(0) != MAGIC)
+            {
+                throw new IOException(path + " is not a graph image");
+            }
+            int version = image.getInt(4);
+            if (version != VERSION)
+            {
+                throw new IOException("Unsupported graph image version " + version);
+            }
+            int n = image.getInt(8);
+            long m = image.getLong(12);
+            int slots = image.getInt(20);
+            Layout layout = new Layout(n, m, slots);
+            if (n < 0 || m < 0 || Integer.bitCount(slots) != 1 || layout.names > size
+                    || layout.names + image.getLong((int) layout.nameOffsets + n * 8) > size)
+            {
+                throw new IOException(path + " is truncated or corrupt");
+            }
+            return new MappedGraph<>(image, layout, encoder, decoder);
+        }
+    }
+
+    //hash table size: a power of two with at most half the slots in use
+    private static int slotCount(int n)
+    {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, n)) << 2);
+    }
+
+    //mixes the high bits of a hash into the low bits used for the slot
+    static int spread(int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+
+    //byte positions of each section, computed from the counts in the header
+    static final class Layout
+    {
+        final int vertexCount;
+        final long edgeCount;
+        final int slots;
+        final long nameOffsets;
+        final long hashTable;
+        final long rowOffsets;
+        final long destinations;
+        final long weights;
+        final long names;
+
+        Layout(int vertexCount, long edgeCount, int slots)
+        {
+            this.vertexCount = vertexCount;
+            this.edgeCount = edgeCount;
+            this.slots = slots;
+            nameOffsets = HEADER_BYTES;
+            hashTable = nameOffsets + (vertexCount + 1L) * 8;
+            rowOffsets = hashTable + slots * 8L;
+            destinations = rowOffsets + (vertexCount + 1L) * 8;
+            weights = destinations + edgeCount * 4;
+            names = weights + edgeCount * 4;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package io;
+
+import graphs.Edge;
+import graphs.IGraph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * A read-only graph served straight from a memory-mapped image written by GraphImage.
+ *
+ * Nothing is decoded up front. A vertex lookup hashes the vertex name, probes the image's
+ * prebuilt hash table, and decodes only the candidate it lands on; an edge lookup then
+ * binary-searches the sorted destination ids of one row. Decoded vertices are cached in an
+ * AtomicReferenceArray, so a vertex decoded by one thread is safely published to the
+ * others, and concurrent reads are safe. Two threads may race to decode the same name, in
+ * which case the first one cached wins and the decoder ran twice. Every mutator throws an
+ * UnsupportedOperationException.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class MappedGraph<V> implements IGraph<V>
+{
+    private final ByteBuffer image;
+    private final Function<V, String> encoder;
+    private final Function<String, V> decoder;
+    private final int vertexCount;
+    private final long edgeCount;
+    private final int slotMask;
+    private final int nameOffsets;
+    private final int hashTable;
+    private final int rowOffsets;
+    private final int destinations;
+    private final int weights;
+    private final int names;
+    private final AtomicReferenceArray<V> decoded;
+
+    MappedGraph(ByteBuffer image, GraphImage.Layout layout, Function<V, String> encoder,
+                Function<String, V> decoder)
+    {
+        this.image = image;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        vertexCount = layout.vertexCount;
+        edgeCount = layout.edgeCount;
+        slotMask = layout.slots - 1;
+        nameOffsets = (int) layout.nameOffsets;
+        hashTable = (int) layout.hashTable;
+        rowOffsets = (int) layout.rowOffsets;
+        destinations = (int) layout.destinations;
+        weights = (int) layout.weights;
+        names = (int) layout.names;
+        decoded = new AtomicReferenceArray<>(vertexCount);
+    }
+
+    @Override
+    public boolean addVertex(V vertex)
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    @Override
+    public boolean addEdge(V source, V destination, int weight)
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    @Override
+    public int vertexSize()
+    {
+        return vertexCount;
+    }
+
+    @Override
+    public int edgeSize()
+    {
+        return (int) edgeCount;
+    }
+
+    @Override
+    public boolean containsVertex(V vertex)
+    {
+        return idOf(vertex) >= 0;
+    }
+
+    @Override
+    public boolean containsEdge(V source, V destination)
+    {
+        return edgeWeight(source, destination) > -1;
+    }
+
+    @Override
+    public int edgeWeight(V source, V destination)
+    {
+        int sourceId = idOf(source), destId = sourceId < 0 ? -1 : idOf(destination);
+        if (destId < 0)
+        {
+            return -1;
+        }
+        int edge = findEdge(sourceId, destId);
+        return edge < 0 ? -1 : image.getInt(weights + edge * 4);
+    }
+
+    @Override
+    public Set<V> vertices()
+    {
+        Set<V> vertices = new HashSet<>();
+        for (int id = 0; id < vertexCount; id++)
+        {
+            vertices.add(vertexAt(id));
+        }
+        return vertices;
+    }
+
+    @Override
+    public Set<Edge<V>> edges()
+    {
+        Set<Edge<V>> edges = new HashSet<>();
+        for (int id = 0; id < vertexCount; id++)
+        {
+            V source = vertexAt(id);
+            int end = rowEnd(id);
+            for (int edge = rowStart(id); edge < end; edge++)
+            {
+                edges.add(new Edge<>(source, vertexAt(image.getInt(destinations + edge * 4)),
+                        image.getInt(weights + edge * 4)));
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean removeVertex(V vertex)
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    @Override
+    public boolean removeEdge(V source, V destination)
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    @Override
+    public void clear()
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    /**
+     * Returns the destinations of the edges leaving a vertex.
+     *
+     * @param vertex the source vertex
+     * @return the out-neighbors, empty if the vertex is not in the graph
+     */
+    public Set<V> successors(V vertex)
+    {
+        Set<V> successors = new HashSet<>();
+        int id = idOf(vertex);
+        if (id >= 0)
+        {
+            int end = rowEnd(id);
+            for (int edge = rowStart(id); edge < end; edge++)
+            {
+                successors.add(vertexAt(image.getInt(destinations + edge * 4)));
+            }
+        }
+        return successors;
+    }
+
+    /**
+     * Returns how many vertices have been decoded so far.
+     * @return the decoded vertex count
+     */
+    public int decodedCount()
+    {
+        int count = 0;
+        for (int id = 0; id < vertexCount; id++)
+        {
+            count += decoded.get(id) == null ? 0 : 1;
+        }
+        return count;
+    }
+
+    //probes the prebuilt table; only candidates whose full hash matches are decoded
+    private int idOf(V vertex)
+    {
+        if (vertex == null)
+        {
+            return -1;
+        }
+        int hash = encoder.apply(vertex).hashCode();
+        for (int slot = GraphImage.spread(hash) & slotMask; ; slot = (slot + 1) & slotMask)
+        {
+            int id = image.getInt(hashTable + slot * 8 + 4);
+            if (id == GraphImage.EMPTY)
+            {
+                return -1;
+            }
+            if (image.getInt(hashTable + slot * 8) == hash && vertex.equals(vertexAt(id)))
+            {
+                return id;
+            }
+        }
+    }
+
+    //binary search over the sorted destinations of one row
+    private int findEdge(int sourceId, int destId)
+    {
+        int low = rowStart(sourceId), high = rowEnd(sourceId) - 1;
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            int found = image.getInt(destinations + middle * 4);
+            if (found < destId)
+            {
+                low = middle + 1;
+            }
+            else if (found > destId)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int rowStart(int id)
+    {
+        return (int) image.getLong(rowOffsets + id * 8);
+    }
+
+    private int rowEnd(int id)
+    {
+        return (int) image.getLong(rowOffsets + (id + 1) * 8);
+    }
+
+    private V vertexAt(int id)
+    {
+        V vertex = decoded.get(id);
+        if (vertex == null)
+        {
+            int start = (int) image.getLong(nameOffsets + id * 8);
+            int end = (int) image.getLong(nameOffsets + (id + 1) * 8);
+            byte[] name = new byte[end - start];
+            ByteBuffer view = image.duplicate();
+            view.position(names + start);
+            view.get(name);
+            vertex = decoder.apply(new String(name, StandardCharsets.UTF_8));
+            //keep whichever copy was cached first, so every thread sees the same vertex
+            if (!decoded.compareAndSet(id, null, vertex))
+            {
+                vertex = decoded.get(id);
+            }
+        }
+        return vertex;
+    }
+}
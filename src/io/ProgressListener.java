@@ -0,0 +1,20 @@
+package io;
+
+/**
+ * Receives progress updates while a graph file is imported or exported.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ProgressListener
+{
+    /**
+     * Called each time another buffer of the file has been processed.
+     *
+     * @param bytesProcessed the number of bytes read or written so far
+     * @param totalBytes the size of the file in bytes, or -1 if it is not known yet
+     * @param edgesProcessed the number of edges read or written so far
+     */
+    void progress(long bytesProcessed, long totalBytes, long edgesProcessed);
+}
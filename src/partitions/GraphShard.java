@@ -0,0 +1,305 @@
+package partitions;
+
+import graphs.Edge;
+import structures.Bijection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Stack;
+
+/**
+ * One shard of a partitioned graph. A shard owns a subset of the vertices and stores
+ * every edge leaving them.
+ *
+ * Each owned vertex gets a local row holding its out-edges as a destination id column
+ * sorted for binary search, with a matching weight column, so a shard's memory grows with
+ * its own vertices and edges rather than with the whole graph. Destinations, local or
+ * owned by other shards, are numbered in a dictionary that lists the rows with an edge
+ * into each one; a destination leaves the dictionary as soon as its last incoming edge
+ * does. Removing a vertex follows that list, so only the rows that point at it are
+ * touched.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class GraphShard<V>
+{
+    private static final int INITIAL_ROW_SIZE = 4;
+
+    //owned vertices and their rows
+    private final Map<V, Integer> rowOf = new HashMap<>();
+    private Object[] rowVertices = new Object[16];
+    private int[][] rowDestinations = new int[16][];
+    private int[][] rowWeights = new int[16][];
+    private int[] rowSizes = new int[16];
+    private final Stack<Integer> freeRows = new Stack<>();
+    private int rowCount = 0;
+
+    //destination dictionary, with the rows holding an edge into each destination
+    private final Bijection<V, Integer> destinations = new Bijection<>();
+    private int[] references = new int[16];
+    private int[][] referrers = new int[16][];
+    private final Stack<Integer> freeIds = new Stack<>();
+    private int idCount = 0;
+
+    private int edges = 0;
+
+    /**
+     * Applies a message to this shard.
+     *
+     * @param message the message
+     * @return the reply, whose type depends on the operation
+     */
+    public Object handle(ShardMessage<V> message)
+    {
+        V source = message.getSource(), destination = message.getDestination();
+        switch (message.getOp())
+        {
+            case ADD_VERTEX:
+                return addRow(source);
+            case ADD_EDGE:
+                return addEdge(source, destination, message.getWeight());
+            case CONTAINS_VERTEX:
+                return rowOf.containsKey(source);
+            case CONTAINS_EDGE:
+                return find(source, destination) >= 0;
+            case EDGE_WEIGHT:
+                int position = find(source, destination);
+                return position < 0 ? -1 : rowWeights[rowOf.get(source)][position];
+            case REMOVE_VERTEX:
+                return removeVertex(source);
+            case REMOVE_EDGE:
+                position = find(source, destination);
+                if (position < 0)
+                {
+                    return false;
+                }
+                removeAt(rowOf.get(source), position);
+                return true;
+            case CLEAR:
+                clear();
+                return null;
+            case VERTEX_SIZE:
+                return rowOf.size();
+            case EDGE_SIZE:
+                return edges;
+            case VERTICES:
+                return new HashSet<>(rowOf.keySet());
+            case EDGES:
+                return edges();
+            case NEIGHBORS:
+                return neighbors(message.getVertices());
+            default:
+                throw new IllegalArgumentException("Unknown operation " + message.getOp());
+        }
+    }
+
+    /**
+     * Returns the number of distinct destination vertices the edges of this shard point at,
+     * including vertices owned by other shards.
+     *
+     * @return the destination count
+     */
+    public int destinationCount()
+    {
+        return destinations.keySet().size();
+    }
+
+    private boolean addRow(V vertex)
+    {
+        if (rowOf.containsKey(vertex))
+        {
+            return false;
+        }
+        int row = freeRows.isEmpty() ? rowCount++ : freeRows.pop();
+        if (row == rowVertices.length)
+        {
+            int size = row * 2;
+            rowVertices = Arrays.copyOf(rowVertices, size);
+            rowDestinations = Arrays.copyOf(rowDestinations, size);
+            rowWeights = Arrays.copyOf(rowWeights, size);
+            rowSizes = Arrays.copyOf(rowSizes, size);
+        }
+        rowVertices[row] = vertex;
+        rowDestinations[row] = new int[INITIAL_ROW_SIZE];
+        rowWeights[row] = new int[INITIAL_ROW_SIZE];
+        rowSizes[row] = 0;
+        rowOf.put(vertex, row);
+        return true;
+    }
+
+    private boolean addEdge(V source, V destination, int weight)
+    {
+        Integer row = rowOf.get(source);
+        if (row == null)
+        {
+            return false;
+        }
+        int id = idFor(destination);
+        int position = Arrays.binarySearch(rowDestinations[row], 0, rowSizes[row], id);
+        if (position >= 0)
+        {
+            return false;
+        }
+        position = -position - 1;
+        int size = rowSizes[row];
+        if (size == rowDestinations[row].length)
+        {
+            rowDestinations[row] = Arrays.copyOf(rowDestinations[row], size * 2);
+            rowWeights[row] = Arrays.copyOf(rowWeights[row], size * 2);
+        }
+        System.arraycopy(rowDestinations[row], position, rowDestinations[row], position + 1, size - position);
+        System.arraycopy(rowWeights[row], position, rowWeights[row], position + 1, size - position);
+        rowDestinations[row][position] = id;
+        rowWeights[row][position] = weight;
+        rowSizes[row]++;
+        if (references[id] == referrers[id].length)
+        {
+            referrers[id] = Arrays.copyOf(referrers[id], references[id] * 2);
+        }
+        referrers[id][references[id]++] = row;
+        edges++;
+        return true;
+    }
+
+    //every shard drops edges into the vertex, but only its owner reports success
+    private boolean removeVertex(V vertex)
+    {
+        Integer id = destinations.getValue(vertex);
+        //visit only the rows pointing at the vertex; the last removal frees the id
+        while (id != null && references[id] > 0)
+        {
+            int row = referrers[id][references[id] - 1];
+            removeAt(row, Arrays.binarySearch(rowDestinations[row], 0, rowSizes[row], id));
+        }
+
+        Integer row = rowOf.remove(vertex);
+        if (row == null)
+        {
+            return false;
+        }
+        while (rowSizes[row] > 0)
+        {
+            removeAt(row, rowSizes[row] - 1);
+        }
+        rowVertices[row] = null;
+        rowDestinations[row] = null;
+        rowWeights[row] = null;
+        freeRows.push(row);
+        return true;
+    }
+
+    private void removeAt(int row, int position)
+    {
+        int id = rowDestinations[row][position];
+        int tail = rowSizes[row] - position - 1;
+        System.arraycopy(rowDestinations[row], position + 1, rowDestinations[row], position, tail);
+        System.arraycopy(rowWeights[row], position + 1, rowWeights[row], position, tail);
+        rowSizes[row]--;
+        edges--;
+
+        //swap the row out of the destination's referrers
+        int[] rows = referrers[id];
+        int last = --references[id];
+        for (int i = 0; i < last; i++)
+        {
+            if (rows[i] == row)
+            {
+                rows[i] = rows[last];
+                break;
+            }
+        }
+        if (last == 0)
+        {
+            //last edge into this destination is gone, so forget it
+            destinations.removeValue(id);
+            referrers[id] = null;
+            freeIds.push(id);
+        }
+    }
+
+    private int idFor(V vertex)
+    {
+        Integer id = destinations.getValue(vertex);
+        if (id != null)
+        {
+            return id;
+        }
+        int fresh = freeIds.isEmpty() ? idCount++ : freeIds.pop();
+        if (fresh == references.length)
+        {
+            references = Arrays.copyOf(references, fresh * 2);
+            referrers = Arrays.copyOf(referrers, fresh * 2);
+        }
+        references[fresh] = 0;
+        referrers[fresh] = new int[INITIAL_ROW_SIZE];
+        destinations.add(vertex, fresh);
+        return fresh;
+    }
+
+    //the position of an edge in its row, or -1
+    private int find(V source, V destination)
+    {
+        Integer row = rowOf.get(source), id = destinations.getValue(destination);
+        if (row == null || id == null)
+        {
+            return -1;
+        }
+        int position = Arrays.binarySearch(rowDestinations[row], 0, rowSizes[row], id);
+        return position < 0 ? -1 : position;
+    }
+
+    private void clear()
+    {
+        rowOf.clear();
+        rowVertices = new Object[16];
+        rowDestinations = new int[16][];
+        rowWeights = new int[16][];
+        rowSizes = new int[16];
+        freeRows.clear();
+        rowCount = 0;
+        destinations.clear();
+        references = new int[16];
+        referrers = new int[16][];
+        freeIds.clear();
+        idCount = 0;
+        edges = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Edge<V>> edges()
+    {
+        Set<Edge<V>> all = new HashSet<>();
+        for (int row = 0; row < rowCount; row++)
+        {
+            for (int i = 0; rowVertices[row] != null && i < rowSizes[row]; i++)
+            {
+                all.add(new Edge<>((V) rowVertices[row], destinations.getKey(rowDestinations[row][i]),
+                        rowWeights[row][i]));
+            }
+        }
+        return all;
+    }
+
+    //the distinct out-neighbors of a batch of owned vertices
+    private List<V> neighbors(List<V> vertices)
+    {
+        Set<V> neighbors = new LinkedHashSet<>();
+        for (V vertex : vertices)
+        {
+            Integer row = rowOf.get(vertex);
+            for (int i = 0; row != null && i < rowSizes[row]; i++)
+            {
+                neighbors.add(destinations.getKey(rowDestinations[row][i]));
+            }
+        }
+        return new ArrayList<>(neighbors);
+    }
+}
@@ -0,0 +1,19 @@
+package partitions;
+
+/**
+ * Spreads vertices across shards by their hash code.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class HashPartitioner<V> implements Partitioner<V>
+{
+    @Override
+    public int shardOf(V vertex, int shardCount)
+    {
+        int hash = vertex.hashCode();
+        hash ^= hash >>> 16; //mix high bits into the low bits used by floorMod
+        return Math.floorMod(hash * 0x9E3779B9, shardCount);
+    }
+}
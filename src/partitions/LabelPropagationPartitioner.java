@@ -0,0 +1,161 @@
+package partitions;
+
+import graphs.Edge;
+import graphs.IGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A locality-aware partitioner that places each vertex on the shard most of its
+ * neighbors use, so traversals cross fewer shards.
+ *
+ * The assignment is computed once from a sample graph with balanced label propagation:
+ * vertices start on their hash shard, then repeatedly move to the shard holding most of
+ * their neighbors (edges are treated as undirected) as long as that shard is below its
+ * capacity. Vertices that were not in the sample graph fall back to hash placement.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class LabelPropagationPartitioner<V> implements Partitioner<V>
+{
+    private static final double DEFAULT_SLACK = 0.1;
+
+    private final int shardCount;
+    private final Map<V, Integer> assignment = new HashMap<>();
+    private final HashPartitioner<V> fallback = new HashPartitioner<>();
+
+    /**
+     * Computes an assignment with up to 10% imbalance between shards.
+     *
+     * @param graph the graph whose vertices and edges guide the placement
+     * @param shardCount the number of shards
+     * @param iterations the maximum number of propagation rounds
+     */
+    public LabelPropagationPartitioner(IGraph<V> graph, int shardCount, int iterations)
+    {
+        this(graph, shardCount, iterations, DEFAULT_SLACK);
+    }
+
+    /**
+     * Computes an assignment.
+     *
+     * @param graph the graph whose vertices and edges guide the placement
+     * @param shardCount the number of shards
+     * @param iterations the maximum number of propagation rounds
+     * @param slack how far above an even split a shard may grow, for example 0.1 for 10%
+     */
+    public LabelPropagationPartitioner(IGraph<V> graph, int shardCount, int iterations, double slack)
+    {
+        if (shardCount <= 0)
+        {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.shardCount = shardCount;
+
+        //number the vertices and build undirected adjacency lists
+        List<V> vertices = new ArrayList<>(graph.vertices());
+        Map<V, Integer> ids = new HashMap<>();
+        for (V vertex : vertices)
+        {
+            ids.put(vertex, ids.size());
+        }
+        List<List<Integer>> adjacent = new ArrayList<>();
+        for (int i = 0; i < vertices.size(); i++)
+        {
+            adjacent.add(new ArrayList<>());
+        }
+        for (Edge<V> edge : graph.edges())
+        {
+            int source = ids.get(edge.getSource()), destination = ids.get(edge.getDestination());
+            if (source != destination)
+            {
+                adjacent.get(source).add(destination);
+                adjacent.get(destination).add(source);
+            }
+        }
+
+        int[] labels = new int[vertices.size()];
+        int[] sizes = new int[shardCount];
+        for (int i = 0; i < labels.length; i++)
+        {
+            labels[i] = fallback.shardOf(vertices.get(i), shardCount);
+            sizes[labels[i]]++;
+        }
+
+        int capacity = (int) Math.ceil(vertices.size() / (double) shardCount * (1 + slack));
+        int[] counts = new int[shardCount];
+        for (int round = 0; round < iterations; round++)
+        {
+            boolean moved = false;
+            for (int i = 0; i < labels.length; i++)
+            {
+                Arrays.fill(counts, 0);
+                for (int neighbor : adjacent.get(i))
+                {
+                    counts[labels[neighbor]]++;
+                }
+                int best = labels[i];
+                for (int shard = 0; shard < shardCount; shard++)
+                {
+                    if (counts[shard] > counts[best] && sizes[shard] < capacity)
+                    {
+                        best = shard;
+                    }
+                }
+                if (best != labels[i])
+                {
+                    sizes[labels[i]]--;
+                    sizes[best]++;
+                    labels[i] = best;
+                    moved = true;
+                }
+            }
+            if (!moved)
+            {
+                break;
+            }
+        }
+
+        for (int i = 0; i < labels.length; i++)
+        {
+            assignment.put(vertices.get(i), labels[i]);
+        }
+    }
+
+    @Override
+    public int shardOf(V vertex, int shardCount)
+    {
+        if (shardCount != this.shardCount)
+        {
+            throw new IllegalArgumentException("Partitioner was built for " + this.shardCount
+                    + " shards, not " + shardCount);
+        }
+        Integer shard = assignment.get(vertex);
+        return shard != null ? shard : fallback.shardOf(vertex, shardCount);
+    }
+
+    /**
+     * Counts the edges of a graph whose endpoints are owned by different shards.
+     *
+     * @param graph the graph to measure
+     * @return the number of cut edges
+     */
+    public int cutSize(IGraph<V> graph)
+    {
+        int cut = 0;
+        for (Edge<V> edge : graph.edges())
+        {
+            if (shardOf(edge.getSource(), shardCount) != shardOf(edge.getDestination(), shardCount))
+            {
+                cut++;
+            }
+        }
+        return cut;
+    }
+}
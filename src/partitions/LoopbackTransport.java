@@ -0,0 +1,92 @@
+package partitions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A transport that calls shards living in the same JVM. It is meant for tests and
+ * single-machine runs, and counts round trips so batching can be checked.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class LoopbackTransport<V> implements ShardTransport<V>
+{
+    private final List<GraphShard<V>> shards = new ArrayList<>();
+    private long roundTrips = 0;
+    private long messages = 0;
+
+    /**
+     * Creates a transport with the given number of empty shards.
+     *
+     * @param shardCount the number of shards, throws an IllegalArgumentException
+     *                   if it is not positive
+     */
+    public LoopbackTransport(int shardCount)
+    {
+        if (shardCount <= 0)
+        {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        for (int i = 0; i < shardCount; i++)
+        {
+            shards.add(new GraphShard<>());
+        }
+    }
+
+    @Override
+    public int shardCount()
+    {
+        return shards.size();
+    }
+
+    @Override
+    public Object send(int shard, ShardMessage<V> message)
+    {
+        roundTrips++;
+        messages++;
+        return shards.get(shard).handle(message);
+    }
+
+    @Override
+    public List<Object> sendBatch(int shard, List<ShardMessage<V>> batch)
+    {
+        roundTrips++;
+        messages += batch.size();
+        List<Object> replies = new ArrayList<>(batch.size());
+        for (ShardMessage<V> message : batch)
+        {
+            replies.add(shards.get(shard).handle(message));
+        }
+        return replies;
+    }
+
+    /**
+     * Returns one of the shards, for inspecting what it stores.
+     * @param shard the shard number
+     * @return the shard
+     */
+    public GraphShard<V> shard(int shard)
+    {
+        return shards.get(shard);
+    }
+
+    /**
+     * Returns the number of send() and sendBatch() calls so far.
+     * @return the round trip count
+     */
+    public long roundTrips()
+    {
+        return roundTrips;
+    }
+
+    /**
+     * Returns the number of messages delivered so far.
+     * @return the message count
+     */
+    public long messages()
+    {
+        return messages;
+    }
+}
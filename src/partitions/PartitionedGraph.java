@@ -0,0 +1,324 @@
+package partitions;
+
+import graphs.Edge;
+import graphs.IGraph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An edge-weighted digraph split across shards. Each vertex is owned by the shard its
+ * partitioner picks, and each edge is stored by the owner of its source vertex, so every
+ * single-edge operation is answered by one shard. Whole-graph queries ask every shard once.
+ *
+ * Traversals move one breadth-first level at a time and send each shard a single batched
+ * neighbor request per level, instead of one request per vertex. Bulk insertions are
+ * likewise grouped by shard and sent as one batch per shard.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class PartitionedGraph<V> implements IGraph<V>
+{
+    private final Partitioner<V> partitioner;
+    private final ShardTransport<V> transport;
+
+    /**
+     * Creates a graph over the shards reachable through a transport.
+     *
+     * @param partitioner decides which shard owns each vertex
+     * @param transport carries messages to the shards
+     */
+    public PartitionedGraph(Partitioner<V> partitioner, ShardTransport<V> transport)
+    {
+        this.partitioner = partitioner;
+        this.transport = transport;
+    }
+
+    /**
+     * Returns the shard that owns a vertex.
+     * @param vertex the vertex
+     * @return the shard number
+     */
+    public int shardOf(V vertex)
+    {
+        return partitioner.shardOf(vertex, transport.shardCount());
+    }
+
+    @Override
+    public boolean addVertex(V vertex)
+    {
+        return (Boolean) transport.send(shardOf(vertex),
+                ShardMessage.vertex(ShardMessage.Op.ADD_VERTEX, vertex));
+    }
+
+    @Override
+    public boolean addEdge(V source, V destination, int weight)
+    {
+        if (weight < 0)
+        {
+            throw new IllegalArgumentException("Edge weight cannot be negative: " + weight);
+        }
+        if (!containsVertex(destination))
+        {
+            return false;
+        }
+        return (Boolean) transport.send(shardOf(source),
+                ShardMessage.edge(ShardMessage.Op.ADD_EDGE, source, destination, weight));
+    }
+
+    /**
+     * Adds many vertices, sending each shard one batch.
+     *
+     * @param vertices the vertices to add
+     * @return the number of vertices added
+     */
+    public int addVertices(Collection<V> vertices)
+    {
+        List<List<ShardMessage<V>>> batches = emptyBatches();
+        for (V vertex : vertices)
+        {
+            batches.get(shardOf(vertex)).add(ShardMessage.vertex(ShardMessage.Op.ADD_VERTEX, vertex));
+        }
+        return countTrue(sendBatches(batches));
+    }
+
+    /**
+     * Adds many edges. Destinations are checked with one batch per shard, then the edges
+     * are sent with one batch per shard. Edges whose destination is missing are skipped.
+     *
+     * @param edges the edges to add
+     * @return the number of edges added
+     */
+    public int addEdges(Collection<Edge<V>> edges)
+    {
+        List<Edge<V>> pending = new ArrayList<>(edges);
+        for (Edge<V> edge : pending)
+        {
+            if (edge.getWeight() < 0)
+            {
+                throw new IllegalArgumentException("Edge weight cannot be negative: " + edge.getWeight());
+            }
+        }
+
+        //ask each owner about the destinations, remembering which reply answers which edge
+        List<List<ShardMessage<V>>> checks = emptyBatches();
+        int[] checkShard = new int[pending.size()], checkSlot = new int[pending.size()];
+        for (int i = 0; i < pending.size(); i++)
+        {
+            V destination = pending.get(i).getDestination();
+            checkShard[i] = shardOf(destination);
+            checkSlot[i] = checks.get(checkShard[i]).size();
+            checks.get(checkShard[i]).add(ShardMessage.vertex(ShardMessage.Op.CONTAINS_VERTEX, destination));
+        }
+        List<List<Object>> present = sendBatches(checks);
+
+        List<List<ShardMessage<V>>> inserts = emptyBatches();
+        for (int i = 0; i < pending.size(); i++)
+        {
+            if ((Boolean) present.get(checkShard[i]).get(checkSlot[i]))
+            {
+                Edge<V> edge = pending.get(i);
+                inserts.get(shardOf(edge.getSource())).add(ShardMessage.edge(ShardMessage.Op.ADD_EDGE,
+                        edge.getSource(), edge.getDestination(), edge.getWeight()));
+            }
+        }
+        return countTrue(sendBatches(inserts));
+    }
+
+    @Override
+    public int vertexSize()
+    {
+        int size = 0;
+        for (Object reply : broadcast(ShardMessage.of(ShardMessage.Op.VERTEX_SIZE)))
+        {
+            size += (Integer) reply;
+        }
+        return size;
+    }
+
+    @Override
+    public int edgeSize()
+    {
+        int size = 0;
+        for (Object reply : broadcast(ShardMessage.of(ShardMessage.Op.EDGE_SIZE)))
+        {
+            size += (Integer) reply;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean containsVertex(V vertex)
+    {
+        return (Boolean) transport.send(shardOf(vertex),
+                ShardMessage.vertex(ShardMessage.Op.CONTAINS_VERTEX, vertex));
+    }
+
+    @Override
+    public boolean containsEdge(V source, V destination)
+    {
+        return (Boolean) transport.send(shardOf(source),
+                ShardMessage.edge(ShardMessage.Op.CONTAINS_EDGE, source, destination, 0));
+    }
+
+    @Override
+    public int edgeWeight(V source, V destination)
+    {
+        return (Integer) transport.send(shardOf(source),
+                ShardMessage.edge(ShardMessage.Op.EDGE_WEIGHT, source, destination, 0));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<V> vertices()
+    {
+        Set<V> vertices = new HashSet<>();
+        for (Object reply : broadcast(ShardMessage.of(ShardMessage.Op.VERTICES)))
+        {
+            vertices.addAll((Set<V>) reply);
+        }
+        return vertices;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Edge<V>> edges()
+    {
+        Set<Edge<V>> edges = new HashSet<>();
+        for (Object reply : broadcast(ShardMessage.of(ShardMessage.Op.EDGES)))
+        {
+            edges.addAll((Set<Edge<V>>) reply);
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean removeVertex(V vertex)
+    {
+        if (!containsVertex(vertex))
+        {
+            return false;
+        }
+        //other shards may hold edges into the vertex; each one visits only the rows that do
+        broadcast(ShardMessage.vertex(ShardMessage.Op.REMOVE_VERTEX, vertex));
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(V source, V destination)
+    {
+        return (Boolean) transport.send(shardOf(source),
+                ShardMessage.edge(ShardMessage.Op.REMOVE_EDGE, source, destination, 0));
+    }
+
+    @Override
+    public void clear()
+    {
+        broadcast(ShardMessage.of(ShardMessage.Op.CLEAR));
+    }
+
+    /**
+     * Returns every vertex reachable from a vertex, including the vertex itself.
+     * Each breadth-first level costs at most one round trip per shard.
+     *
+     * @param source the start vertex
+     * @return the reachable vertices, empty if the vertex is not in the graph
+     */
+    @SuppressWarnings("unchecked")
+    public Set<V> reachableFrom(V source)
+    {
+        Set<V> reached = new HashSet<>();
+        if (!containsVertex(source))
+        {
+            return reached;
+        }
+
+        int shardCount = transport.shardCount();
+        List<V> frontier = new ArrayList<>();
+        frontier.add(source);
+        reached.add(source);
+        while (!frontier.isEmpty())
+        {
+            //group the frontier by owning shard
+            List<List<V>> byShard = new ArrayList<>(shardCount);
+            for (int i = 0; i < shardCount; i++)
+            {
+                byShard.add(new ArrayList<>());
+            }
+            for (V vertex : frontier)
+            {
+                byShard.get(shardOf(vertex)).add(vertex);
+            }
+
+            List<V> nextFrontier = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++)
+            {
+                if (byShard.get(shard).isEmpty())
+                {
+                    continue;
+                }
+                List<V> neighbors = (List<V>) transport.send(shard, ShardMessage.neighbors(byShard.get(shard)));
+                for (V neighbor : neighbors)
+                {
+                    if (reached.add(neighbor))
+                    {
+                        nextFrontier.add(neighbor);
+                    }
+                }
+            }
+            frontier = nextFrontier;
+        }
+        return reached;
+    }
+
+    private List<List<ShardMessage<V>>> emptyBatches()
+    {
+        List<List<ShardMessage<V>>> batches = new ArrayList<>();
+        for (int shard = 0; shard < transport.shardCount(); shard++)
+        {
+            batches.add(new ArrayList<>());
+        }
+        return batches;
+    }
+
+    //one round trip per shard that has messages waiting; replies are listed by shard
+    private List<List<Object>> sendBatches(List<List<ShardMessage<V>>> batches)
+    {
+        List<List<Object>> replies = new ArrayList<>();
+        for (int shard = 0; shard < batches.size(); shard++)
+        {
+            List<ShardMessage<V>> batch = batches.get(shard);
+            replies.add(batch.isEmpty() ? new ArrayList<>() : transport.sendBatch(shard, batch));
+        }
+        return replies;
+    }
+
+    private static int countTrue(List<List<Object>> replies)
+    {
+        int count = 0;
+        for (List<Object> shardReplies : replies)
+        {
+            for (Object reply : shardReplies)
+            {
+                count += Boolean.TRUE.equals(reply) ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    //sends the same message to every shard
+    private List<Object> broadcast(ShardMessage<V> message)
+    {
+        List<Object> replies = new ArrayList<>();
+        for (int shard = 0; shard < transport.shardCount(); shard++)
+        {
+            replies.add(transport.send(shard, message));
+        }
+        return replies;
+    }
+}
@@ -0,0 +1,22 @@
+package partitions;
+
+/**
+ * Decides which shard owns a vertex. The answer for a vertex must never change
+ * while a partitioned graph is using the partitioner.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+@FunctionalInterface
+public interface Partitioner<V>
+{
+    /**
+     * Returns the shard that owns a vertex.
+     *
+     * @param vertex the vertex
+     * @param shardCount the number of shards
+     * @return a shard number from 0 to shardCount - 1
+     */
+    int shardOf(V vertex, int shardCount);
+}
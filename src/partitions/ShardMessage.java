@@ -0,0 +1,148 @@
+package partitions;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A request sent to a graph shard. Messages only hold vertices, weights and
+ * an operation code, so they can be serialized for a network transport.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public final class ShardMessage<V> implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The operations a shard understands.
+     */
+    public enum Op
+    {
+        ADD_VERTEX, ADD_EDGE, CONTAINS_VERTEX, CONTAINS_EDGE, EDGE_WEIGHT,
+        REMOVE_VERTEX, REMOVE_EDGE, CLEAR, VERTEX_SIZE, EDGE_SIZE, VERTICES, EDGES,
+        NEIGHBORS
+    }
+
+    private final Op op;
+    private final V source;
+    private final V destination;
+    private final int weight;
+    private final List<V> vertices;
+
+    private ShardMessage(Op op, V source, V destination, int weight, List<V> vertices)
+    {
+        this.op = op;
+        this.source = source;
+        this.destination = destination;
+        this.weight = weight;
+        this.vertices = vertices;
+    }
+
+    /**
+     * Creates a message that has no arguments.
+     *
+     * @param op the operation
+     * @param <V> the type of the vertices
+     * @return a new message
+     */
+    public static <V> ShardMessage<V> of(Op op)
+    {
+        return new ShardMessage<>(op, null, null, 0, Collections.emptyList());
+    }
+
+    /**
+     * Creates a message about a single vertex.
+     *
+     * @param op the operation
+     * @param vertex the vertex
+     * @param <V> the type of the vertices
+     * @return a new message
+     */
+    public static <V> ShardMessage<V> vertex(Op op, V vertex)
+    {
+        return new ShardMessage<>(op, vertex, null, 0, Collections.emptyList());
+    }
+
+    /**
+     * Creates a message about an edge.
+     *
+     * @param op the operation
+     * @param source the source vertex
+     * @param destination the destination vertex
+     * @param weight the edge weight, ignored unless adding an edge
+     * @param <V> the type of the vertices
+     * @return a new message
+     */
+    public static <V> ShardMessage<V> edge(Op op, V source, V destination, int weight)
+    {
+        return new ShardMessage<>(op, source, destination, weight, Collections.emptyList());
+    }
+
+    /**
+     * Creates a message that asks for the out-neighbors of many vertices at once.
+     *
+     * @param vertices the vertices to expand
+     * @param <V> the type of the vertices
+     * @return a new message
+     */
+    public static <V> ShardMessage<V> neighbors(Collection<V> vertices)
+    {
+        return new ShardMessage<>(Op.NEIGHBORS, null, null, 0, new ArrayList<>(vertices));
+    }
+
+    /**
+     * Getter for the operation.
+     * @return the operation
+     */
+    public Op getOp()
+    {
+        return op;
+    }
+
+    /**
+     * Getter for the source vertex, or the single vertex of a vertex message.
+     * @return the source vertex
+     */
+    public V getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Getter for the destination vertex.
+     * @return the destination vertex
+     */
+    public V getDestination()
+    {
+        return destination;
+    }
+
+    /**
+     * Getter for the edge weight.
+     * @return the edge weight
+     */
+    public int getWeight()
+    {
+        return weight;
+    }
+
+    /**
+     * Getter for the vertices of a batched message.
+     * @return an unmodifiable vertex list
+     */
+    public List<V> getVertices()
+    {
+        return Collections.unmodifiableList(vertices);
+    }
+
+    @Override
+    public String toString()
+    {
+        return op + "(" + source + ", " + destination + ", " + weight + ", " + vertices + ")";
+    }
+}
@@ -0,0 +1,39 @@
+package partitions;
+
+import java.util.List;
+
+/**
+ * Carries messages from a partitioned graph to its shards. Implementations may
+ * call shards in the same JVM or send the messages over a network.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public interface ShardTransport<V>
+{
+    /**
+     * Returns the number of shards reachable through this transport.
+     * @return the shard count
+     */
+    int shardCount();
+
+    /**
+     * Sends one message to a shard and waits for its reply.
+     *
+     * @param shard the shard number
+     * @param message the message
+     * @return the shard's reply
+     */
+    Object send(int shard, ShardMessage<V> message);
+
+    /**
+     * Sends several messages to a shard in one round trip. The shard applies
+     * them in order.
+     *
+     * @param shard the shard number
+     * @param messages the messages
+     * @return the shard's replies, in message order
+     */
+    List<Object> sendBatch(int shard, List<ShardMessage<V>> messages);
+}
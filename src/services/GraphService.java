@@ -0,0 +1,401 @@
+package services;
+
+import graphs.IGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * An asynchronous front end for a graph that is shared by many concurrent requests.
+ *
+ * Reads are run on a caller-supplied Executor and may run in parallel with each other.
+ * Mutations are never run by the caller: they go into a bounded queue that one writer
+ * thread drains, applying everything waiting as a single batch under the write lock, so
+ * many small writes cost one lock hand-off instead of one each. When the queue is full a
+ * mutation is rejected at once rather than blocking the caller, and its future fails with
+ * a RejectedExecutionException.
+ *
+ * Locking uses java.util.concurrent locks and no synchronized blocks, so reads can be
+ * given a virtual-thread-per-task executor on runtimes that have one without pinning
+ * carrier threads.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public class GraphService<V> implements AutoCloseable
+{
+    private static final int DEFAULT_MAX_BATCH = 1024;
+
+    private final IGraph<V> graph;
+    private final Executor readExecutor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BlockingQueue<Mutation<V, ?>> queue;
+    private final int maxBatch;
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong largestBatch = new AtomicLong();
+
+    /**
+     * Creates a service that applies up to 1024 mutations per batch.
+     *
+     * @param graph the graph to serve, which must not be used directly while the service runs
+     * @param readExecutor runs the read queries
+     * @param queueCapacity how many mutations may wait before new ones are rejected
+     */
+    public GraphService(IGraph<V> graph, Executor readExecutor, int queueCapacity)
+    {
+        this(graph, readExecutor, queueCapacity, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param graph the graph to serve, which must not be used directly while the service runs
+     * @param readExecutor runs the read queries
+     * @param queueCapacity how many mutations may wait before new ones are rejected
+     * @param maxBatch the largest number of mutations applied under one write lock
+     */
+    public GraphService(IGraph<V> graph, Executor readExecutor, int queueCapacity, int maxBatch)
+    {
+        if (queueCapacity <= 0 || maxBatch <= 0)
+        {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+        }
+        this.graph = graph;
+        this.readExecutor = readExecutor;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        writer = new Thread(this::writeLoop, "graph-service-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Runs a read-only query against the graph. The query must not modify the graph.
+     *
+     * @param query the query to run
+     * @param <R> the result type
+     * @return a future completed with the query result, or with the exception it threw, or
+     *         failed with a RejectedExecutionException if the service is closed or the
+     *         executor refuses the query
+     */
+    public <R> CompletableFuture<R> read(Function<? super IGraph<V>, ? extends R> query)
+    {
+        if (closed)
+        {
+            return rejectedFuture();
+        }
+        try
+        {
+            return CompletableFuture.supplyAsync(() ->
+            {
+                lock.readLock().lock();
+                try
+                {
+                    return query.apply(graph);
+                }
+                finally
+                {
+                    lock.readLock().unlock();
+                }
+            }, readExecutor);
+        }
+        catch (RejectedExecutionException e)
+        {
+            //a saturated or shut down executor fails the future, like a full write queue
+            CompletableFuture<R> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * Queues a mutation for the writer thread.
+     *
+     * @param mutation the change to apply to the graph
+     * @param <R> the result type
+     * @return a future completed once the mutation has been applied, or failed with a
+     *         RejectedExecutionException if the queue is full or the service is closed
+     */
+    public <R> CompletableFuture<R> write(Function<? super IGraph<V>, ? extends R> mutation)
+    {
+        Mutation<V, R> entry = new Mutation<>(mutation);
+        if (closed || !queue.offer(entry))
+        {
+            rejected.incrementAndGet();
+            return rejectedFuture();
+        }
+        //close() may have finished between the check and the offer; if the entry is still
+        //queued nobody will take it, otherwise the writer or close() completes it
+        if (closed && queue.remove(entry))
+        {
+            rejected.incrementAndGet();
+            return rejectedFuture();
+        }
+        return entry.result;
+    }
+
+    /**
+     * Queues a vertex insertion.
+     * @param vertex the vertex to add
+     * @return a future completed with the result of IGraph.addVertex
+     */
+    public CompletableFuture<Boolean> addVertex(V vertex)
+    {
+        return write(graph -> graph.addVertex(vertex));
+    }
+
+    /**
+     * Queues an edge insertion.
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight
+     * @return a future completed with the result of IGraph.addEdge
+     */
+    public CompletableFuture<Boolean> addEdge(V source, V destination, int weight)
+    {
+        return write(graph -> graph.addEdge(source, destination, weight));
+    }
+
+    /**
+     * Queues a vertex removal.
+     * @param vertex the vertex to remove
+     * @return a future completed with the result of IGraph.removeVertex
+     */
+    public CompletableFuture<Boolean> removeVertex(V vertex)
+    {
+        return write(graph -> graph.removeVertex(vertex));
+    }
+
+    /**
+     * Queues an edge removal.
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return a future completed with the result of IGraph.removeEdge
+     */
+    public CompletableFuture<Boolean> removeEdge(V source, V destination)
+    {
+        return write(graph -> graph.removeEdge(source, destination));
+    }
+
+    /**
+     * Looks up an edge weight.
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return a future completed with the result of IGraph.edgeWeight
+     */
+    public CompletableFuture<Integer> edgeWeight(V source, V destination)
+    {
+        return read(graph -> graph.edgeWeight(source, destination));
+    }
+
+    /**
+     * Checks for an edge.
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return a future completed with the result of IGraph.containsEdge
+     */
+    public CompletableFuture<Boolean> containsEdge(V source, V destination)
+    {
+        return read(graph -> graph.containsEdge(source, destination));
+    }
+
+    /**
+     * Returns the number of mutations waiting to be applied.
+     * @return the queue depth
+     */
+    public int queueDepth()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Returns how many more mutations fit in the queue right now.
+     * @return the free queue slots
+     */
+    public int remainingCapacity()
+    {
+        return queue.remainingCapacity();
+    }
+
+    /**
+     * Returns the number of mutations rejected so far.
+     * @return the rejected count
+     */
+    public long rejectedCount()
+    {
+        return rejected.get();
+    }
+
+    /**
+     * Returns the number of batches applied so far.
+     * @return the batch count
+     */
+    public long batchCount()
+    {
+        return batches.get();
+    }
+
+    /**
+     * Returns the number of mutations applied so far.
+     * @return the applied count
+     */
+    public long appliedCount()
+    {
+        return applied.get();
+    }
+
+    /**
+     * Returns the size of the largest batch applied so far.
+     * @return the largest batch size
+     */
+    public long largestBatch()
+    {
+        return largestBatch.get();
+    }
+
+    /**
+     * Stops accepting work, applies the mutations already queued and stops the writer.
+     * Reads already submitted to the executor still run.
+     */
+    @Override
+    public void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        writer.interrupt();
+        try
+        {
+            writer.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        //writes that raced with close() and missed the writer are failed, not left hanging
+        List<Mutation<V, ?>> late = new ArrayList<>();
+        queue.drainTo(late);
+        for (Mutation<V, ?> mutation : late)
+        {
+            rejected.incrementAndGet();
+            mutation.result.completeExceptionally(new RejectedExecutionException("Graph service is closed"));
+        }
+    }
+
+    //takes whatever is queued and applies it under one write lock
+    private void writeLoop()
+    {
+        List<Mutation<V, ?>> batch = new ArrayList<>(maxBatch);
+        while (!closed)
+        {
+            try
+            {
+                batch.add(queue.take());
+            }
+            catch (InterruptedException e)
+            {
+                //close() was called, the loop condition sees it
+                continue;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            apply(batch);
+            batch.clear();
+        }
+
+        //finish what was queued before close()
+        while (queue.drainTo(batch, maxBatch) > 0)
+        {
+            apply(batch);
+            batch.clear();
+        }
+    }
+
+    private void apply(List<Mutation<V, ?>> batch)
+    {
+        lock.writeLock().lock();
+        try
+        {
+            for (Mutation<V, ?> mutation : batch)
+            {
+                mutation.run(graph);
+            }
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+        applied.addAndGet(batch.size());
+        batches.incrementAndGet();
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+
+        //complete outside the lock so callbacks cannot stall the writer
+        for (Mutation<V, ?> mutation : batch)
+        {
+            mutation.complete();
+        }
+    }
+
+    private static <R> CompletableFuture<R> rejectedFuture()
+    {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(new RejectedExecutionException("Graph service is full or closed"));
+        return future;
+    }
+
+    //a queued change with its outcome, completed after the batch leaves the lock
+    private static class Mutation<V, R>
+    {
+        private final Function<? super IGraph<V>, ? extends R> change;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private R value;
+        private Throwable failure;
+
+        private Mutation(Function<? super IGraph<V>, ? extends R> change)
+        {
+            this.change = change;
+        }
+
+        private void run(IGraph<V> graph)
+        {
+            try
+            {
+                value = change.apply(graph);
+            }
+            catch (Throwable e)
+            {
+                //errors too, so one bad mutation cannot kill the writer and strand every future
+                failure = e;
+            }
+        }
+
+        private void complete()
+        {
+            if (failure != null)
+            {
+                result.completeExceptionally(failure);
+            }
+            else
+            {
+                result.complete(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package structures;
+
+/**
+ * A ring buffer of graph changes that doubles as the batch handed to listeners.
+ *
+ * Every change is stored across parallel arrays (type, source, destination, weight and
+ * previous weight) that are allocated once, so recording a change does not allocate.
+ * When the buffer fills up, or when the graph is asked to flush, the pending changes are
+ * delivered to the listeners and their slots are reused. Listeners read a change by its
+ * position in the batch, from 0 to size() - 1, oldest first.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public final class ChangeBatch<V>
+{
+    private static final ChangeType[] TYPES = ChangeType.values();
+
+    private final byte[] types;
+    private final Object[] sources;
+    private final Object[] destinations;
+    private final int[] weights;
+    private final int[] previousWeights;
+    private final int mask;
+    private int head = 0;
+    private int count = 0;
+
+    //capacity is rounded up to a power of two so positions wrap with a mask
+    ChangeBatch(int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        types = new byte[size];
+        sources = new Object[size];
+        destinations = new Object[size];
+        weights = new int[size];
+        previousWeights = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the number of changes in the batch.
+     * @return the batch size
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the kind of a change.
+     * @param position the position of the change in the batch
+     * @return the change type
+     */
+    public ChangeType type(int position)
+    {
+        return TYPES[types[slot(position)]];
+    }
+
+    /**
+     * Returns the vertex a change is about, or the source vertex of an edge change.
+     * @param position the position of the change in the batch
+     * @return the vertex, or null for CLEARED
+     */
+    @SuppressWarnings("unchecked")
+    public V source(int position)
+    {
+        return (V) sources[slot(position)];
+    }
+
+    /**
+     * Returns the destination vertex of an edge change.
+     * @param position the position of the change in the batch
+     * @return the destination vertex, or null for vertex changes and CLEARED
+     */
+    @SuppressWarnings("unchecked")
+    public V destination(int position)
+    {
+        return (V) destinations[slot(position)];
+    }
+
+    /**
+     * Returns the edge weight after a change.
+     * @param position the position of the change in the batch
+     * @return the new weight, or -1 if the change leaves no edge
+     */
+    public int weight(int position)
+    {
+        return weights[slot(position)];
+    }
+
+    /**
+     * Returns the edge weight before a change.
+     * @param position the position of the change in the batch
+     * @return the old weight, or -1 if there was no edge before
+     */
+    public int previousWeight(int position)
+    {
+        return previousWeights[slot(position)];
+    }
+
+    //stores a change, delivering the full buffer to the listeners first if needed
+    void record(ChangeType type, Object source, Object destination, int weight, int previousWeight,
+                Iterable<ChangeListener<V>> listeners)
+    {
+        try
+        {
+            if (count == types.length)
+            {
+                deliver(listeners);
+            }
+        }
+        finally
+        {
+            //the buffer is drained even if a listener threw, so this change is never lost
+            int slot = (head + count) & mask;
+            types[slot] = (byte) type.ordinal();
+            sources[slot] = source;
+            destinations[slot] = destination;
+            weights[slot] = weight;
+            previousWeights[slot] = previousWeight;
+            count++;
+        }
+    }
+
+    //hands the pending changes to every listener, then frees their slots; a listener that
+    //throws does not stop the others, and the first exception is rethrown once the batch is
+    //consumed so it is never delivered twice
+    void deliver(Iterable<ChangeListener<V>> listeners)
+    {
+        if (count == 0)
+        {
+            return;
+        }
+        RuntimeException failure = null;
+        try
+        {
+            for (ChangeListener<V> listener : listeners)
+            {
+                try
+                {
+                    listener.changed(this);
+                }
+                catch (RuntimeException e)
+                {
+                    if (failure == null)
+                    {
+                        failure = e;
+                    }
+                    else
+                    {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            for (int i = 0; i < count; i++)
+            {
+                //drop vertex references so the buffer does not keep removed vertices alive
+                int slot = (head + i) & mask;
+                sources[slot] = null;
+                destinations[slot] = null;
+            }
+            head = (head + count) & mask;
+            count = 0;
+        }
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    private int slot(int position)
+    {
+        if (position < 0 || position >= count)
+        {
+            throw new IndexOutOfBoundsException("Position " + position + " outside batch of " + count);
+        }
+        return (head + position) & mask;
+    }
+}
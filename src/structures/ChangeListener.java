@@ -0,0 +1,22 @@
+package structures;
+
+/**
+ * Receives the mutations of a DirectedGraph in batches.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ * @param <V> the type of the vertices
+ */
+public interface ChangeListener<V>
+{
+    /**
+     * Called with the changes recorded since the last delivery, oldest first. The batch
+     * is the graph's own event buffer and is reused once this method returns, so it must
+     * not be kept, and the graph must not be modified from inside this method. If this
+     * method throws, the other listeners still get the batch, the batch is dropped, and the
+     * exception is rethrown from the call that triggered the delivery.
+     *
+     * @param batch the recorded changes
+     */
+    void changed(ChangeBatch<V> batch);
+}
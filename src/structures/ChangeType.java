@@ -0,0 +1,40 @@
+package structures;
+
+/**
+ * The kinds of mutation a DirectedGraph reports to its change listeners.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public enum ChangeType
+{
+    /**
+     * A vertex was added. Only the source vertex is set.
+     */
+    VERTEX_ADDED,
+
+    /**
+     * A vertex was removed. Its incident edges are reported as removed just before it.
+     */
+    VERTEX_REMOVED,
+
+    /**
+     * An edge was added. The weight is the new edge weight.
+     */
+    EDGE_ADDED,
+
+    /**
+     * An edge was removed. The previous weight is the weight it had.
+     */
+    EDGE_REMOVED,
+
+    /**
+     * The weight of an existing edge changed. Both the weight and the previous weight are set.
+     */
+    WEIGHT_CHANGED,
+
+    /**
+     * Every vertex and edge was removed at once by clear(). No vertex is set.
+     */
+    CLEARED
+}
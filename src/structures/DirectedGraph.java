@@ -3,10 +3,15 @@ package structures;
 import graphs.Edge;
 import graphs.IGraph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Stack;
+import java.util.stream.IntStream;
 
 /**
  * This edge-weighted digraph implementation makes use of multiple data structures.
@@ -21,7 +26,14 @@ public class DirectedGraph<V> implements IGraph<V>
     private int edges = 0;
     private Stack<Integer> stack = new Stack<>();
     private Bijection<V, Integer> table = new Bijection<>();
+    private long version = 0;
+    private long structureVersion = 0;
+    private long[] rowVersions;
+    private final List<ChangeListener<V>> listeners = new ArrayList<>();
+    private ChangeBatch<V> changes; //only allocated while someone listens
     private static final double GROWTH_FACTOR = 1.5;
+    private static final int CHANGE_BUFFER_SIZE = 1024;
+    private static final int PARALLEL_UPDATE_THRESHOLD = 1 << 14;
 
     /**
      * Default constructor that creates an int[10][10] matrix with all indices containing "missing edges"
@@ -29,6 +41,7 @@ public class DirectedGraph<V> implements IGraph<V>
     public DirectedGraph()
     {
         adjMatrix = new int[10][10];
+        rowVersions = new long[10];
         initializeMatrix();
         stack.push(0);
     }
@@ -59,6 +72,8 @@ public class DirectedGraph<V> implements IGraph<V>
                 stack.push(newIndex + 1);
             }
             table.add(vertex, newIndex);
+            touchStructure(newIndex);
+            emit(ChangeType.VERTEX_ADDED, vertex, null, -1, -1);
 
             return true;
         }
@@ -71,10 +86,11 @@ public class DirectedGraph<V> implements IGraph<V>
         int oldLength = adjMatrix.length;
         int newLength = (int) (adjMatrix.length * GROWTH_FACTOR);
         adjMatrix = Arrays.copyOf(adjMatrix, newLength);
+        rowVersions = Arrays.copyOf(rowVersions, newLength);
         for (int i = 0; i < oldLength; i++)
         {
             adjMatrix[i] = Arrays.copyOf(adjMatrix[i], newLength);
-            Arrays.fill(adjMatrix[i], oldLength - 1, newLength, -1);
+            Arrays.fill(adjMatrix[i], oldLength, newLength, -1);
         }
         for (int i = oldLength; i < newLength; i++)
         {
@@ -87,20 +103,191 @@ public class DirectedGraph<V> implements IGraph<V>
     @Override
     public boolean addEdge(V source, V destination, int weight)
     {
-        if (vertices().contains(source) && vertices().contains(destination)) //if vertices are in graph
+        checkWeight(weight);
+        Integer sourceIndex = table.getValue(source), destIndex = table.getValue(destination);
+        if (sourceIndex != null && destIndex != null) //if vertices are in graph
         {
-            int sourceIndex = table.getValue(source), destIndex = table.getValue(destination);
-
             if (adjMatrix[sourceIndex][destIndex] == -1) //if edge is missing, create edge
             {
                 adjMatrix[sourceIndex][destIndex] = weight;
                 edges++;
+                touchStructure(sourceIndex);
+                emit(ChangeType.EDGE_ADDED, source, destination, weight, -1);
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Changes the weight of an existing edge in place, without removing it first.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the new weight, throws an IllegalArgumentException if negative
+     * @return true if the edge exists and now has the weight, false if there is no such edge
+     */
+    public boolean setEdgeWeight(V source, V destination, int weight)
+    {
+        checkWeight(weight);
+        Integer sourceIndex = table.getValue(source), destIndex = table.getValue(destination);
+        if (sourceIndex == null || destIndex == null || adjMatrix[sourceIndex][destIndex] == -1)
+        {
+            return false;
+        }
+        int previous = adjMatrix[sourceIndex][destIndex];
+        if (previous != weight)
+        {
+            adjMatrix[sourceIndex][destIndex] = weight;
+            touchRow(sourceIndex);
+            emit(ChangeType.WEIGHT_CHANGED, source, destination, weight, previous);
+        }
+        return true;
+    }
+
+    /**
+     * Adds an edge, or changes its weight if it already exists.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the weight, throws an IllegalArgumentException if negative
+     * @return the previous weight of the edge, or -1 if the edge was added
+     */
+    public int upsertEdge(V source, V destination, int weight)
+    {
+        checkWeight(weight);
+        Integer sourceIndex = table.getValue(source), destIndex = table.getValue(destination);
+        if (sourceIndex == null || destIndex == null)
+        {
+            throw new IllegalArgumentException("Both vertices must be in the graph");
+        }
+        int previous = adjMatrix[sourceIndex][destIndex];
+        if (previous == -1)
+        {
+            adjMatrix[sourceIndex][destIndex] = weight;
+            edges++;
+            touchStructure(sourceIndex);
+            emit(ChangeType.EDGE_ADDED, source, destination, weight, -1);
+        }
+        else if (previous != weight)
+        {
+            adjMatrix[sourceIndex][destIndex] = weight;
+            touchRow(sourceIndex);
+            emit(ChangeType.WEIGHT_CHANGED, source, destination, weight, previous);
+        }
+        return previous;
+    }
+
+    /**
+     * Changes the weights of many existing edges at once, addressed by matrix index (see
+     * indexOf()). Entry i sets the edge sourceIndices[i] => destIndices[i] to weights[i];
+     * entries whose edge does not exist are skipped. The arguments are checked before
+     * anything is written, so a bad entry leaves the graph unchanged.
+     *
+     * Entries take effect in order, so when the same edge appears more than once its last
+     * weight is kept, and the version moves once for the whole batch. Large batches are
+     * written in parallel when no change listener is registered: entries are grouped by
+     * source row and each row is written by one thread in input order, which gives the
+     * same weights and count as the serial path.
+     *
+     * @param sourceIndices the source index of each edge
+     * @param destIndices the destination index of each edge
+     * @param weights the new weight of each edge
+     * @return the number of edges whose weight changed
+     */
+    public int updateWeights(int[] sourceIndices, int[] destIndices, int[] weights)
+    {
+        int n = sourceIndices.length;
+        if (destIndices.length != n || weights.length != n)
+        {
+            throw new IllegalArgumentException("Index and weight arrays must have the same length");
+        }
+        for (int i = 0; i < n; i++)
+        {
+            checkWeight(weights[i]);
+            if (vertexAt(sourceIndices[i]) == null || vertexAt(destIndices[i]) == null)
+            {
+                throw new IllegalArgumentException("No vertex at index " + sourceIndices[i]
+                        + " or " + destIndices[i]);
+            }
+        }
+
+        //every touched row gets the same new version, so the batch counts as one change
+        long next = version + 1;
+        if (!listeners.isEmpty() || n < PARALLEL_UPDATE_THRESHOLD)
+        {
+            int updated = 0;
+            for (int i = 0; i < n; i++)
+            {
+                int previous = adjMatrix[sourceIndices[i]][destIndices[i]];
+                if (previous > -1 && previous != weights[i])
+                {
+                    adjMatrix[sourceIndices[i]][destIndices[i]] = weights[i];
+                    version = next; //moved before emitting, so listeners see the new version
+                    rowVersions[sourceIndices[i]] = next;
+                    emit(ChangeType.WEIGHT_CHANGED, table.getKey(sourceIndices[i]),
+                            table.getKey(destIndices[i]), weights[i], previous);
+                    updated++;
+                }
+            }
+            return updated;
+        }
+
+        //counting sort of the entries by source row, stable so each row keeps input order
+        int rows = adjMatrix.length;
+        int[] starts = new int[rows + 1];
+        for (int i = 0; i < n; i++)
+        {
+            starts[sourceIndices[i] + 1]++;
+        }
+        for (int r = 0; r < rows; r++)
+        {
+            starts[r + 1] += starts[r];
+        }
+        int[] order = new int[n];
+        int[] fill = Arrays.copyOf(starts, rows);
+        for (int i = 0; i < n; i++)
+        {
+            order[fill[sourceIndices[i]]++] = i;
+        }
+
+        //one thread per row, so duplicate entries of an edge never race
+        int updated = IntStream.range(0, rows).parallel().map(r ->
+        {
+            int[] row = adjMatrix[r];
+            int changed = 0;
+            for (int k = starts[r]; k < starts[r + 1]; k++)
+            {
+                int i = order[k];
+                int previous = row[destIndices[i]];
+                if (previous > -1 && previous != weights[i])
+                {
+                    row[destIndices[i]] = weights[i];
+                    changed++;
+                }
+            }
+            if (changed > 0)
+            {
+                rowVersions[r] = next;
+            }
+            return changed;
+        }).sum();
+        if (updated > 0)
+        {
+            version = next;
+        }
+        return updated;
+    }
+
+    //-1 marks a missing edge, so weights must not be negative
+    private static void checkWeight(int weight)
+    {
+        if (weight < 0)
+        {
+            throw new IllegalArgumentException("Edge weight cannot be negative: " + weight);
+        }
+    }
+
     @Override
     public int vertexSize()
     {
@@ -167,11 +354,28 @@ public class DirectedGraph<V> implements IGraph<V>
             int vIndex = table.getValue(vertex);
 
             //start updating data structures!
-            Arrays.fill(adjMatrix[vIndex], -1); //updating adjMatrix
+            touchStructure(vIndex);
+            int[] row = adjMatrix[vIndex];
+            for (int j = 0; j < row.length; j++) //count outgoing edges before dropping them
+            {
+                if (row[j] > -1)
+                {
+                    edges--;
+                    emit(ChangeType.EDGE_REMOVED, vertex, table.getKey(j), -1, row[j]);
+                }
+            }
+            Arrays.fill(row, -1); //updating adjMatrix
             for (int i = 0; i < adjMatrix.length; i++)
             {
-                adjMatrix[i][vIndex] = -1;
+                if (adjMatrix[i][vIndex] > -1) //incoming edge, so row i changes too
+                {
+                    emit(ChangeType.EDGE_REMOVED, table.getKey(i), vertex, -1, adjMatrix[i][vIndex]);
+                    adjMatrix[i][vIndex] = -1;
+                    edges--;
+                    rowVersions[i] = version;
+                }
             }
+            emit(ChangeType.VERTEX_REMOVED, vertex, null, -1, -1);
             table.removeKey(vertex); //update table
             stack.push(vIndex); //push index on stack for another vertex
             return true;
@@ -186,8 +390,10 @@ public class DirectedGraph<V> implements IGraph<V>
         //if vertices and edge exist in graph
         if (sourceIndex != null && destIndex != null && adjMatrix[sourceIndex][destIndex] > -1)
         {
+            emit(ChangeType.EDGE_REMOVED, source, destination, -1, adjMatrix[sourceIndex][destIndex]);
             adjMatrix[sourceIndex][destIndex] = -1;
             edges--;
+            touchStructure(sourceIndex);
             return true;
         }
         return false;
@@ -198,7 +404,403 @@ public class DirectedGraph<V> implements IGraph<V>
     {
         initializeMatrix();
         stack.clear();
+        stack.push(0);
         table.clear();
         edges = 0;
+        version++;
+        structureVersion = version;
+        Arrays.fill(rowVersions, version);
+        emit(ChangeType.CLEARED, null, null, -1, -1);
+    }
+
+    /**
+     * Returns the modification count of the graph. Every successful addVertex, addEdge,
+     * removeVertex, removeEdge and clear increases it, as does every weight change, so
+     * two equal versions mean the graph did not change in between.
+     *
+     * @return the current version
+     */
+    public long version()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the graph version of the last change to the vertex or edge sets: an added or
+     * removed vertex or edge, a clear or a reorder. Weight changes move version() but not
+     * this, so caches that depend only on which edges exist can key on it and survive
+     * reweights.
+     *
+     * @return the version of the last structural change
+     */
+    public long structureVersion()
+    {
+        return structureVersion;
+    }
+
+    /**
+     * Returns the graph version at which a matrix row last changed. A row changes when
+     * an edge leaving that vertex is added, removed or reweighted, or when the vertex at
+     * that index is added or removed.
+     *
+     * @param index a row index
+     * @return the version of the last change to the row
+     */
+    public long rowVersion(int index)
+    {
+        return rowVersions[index];
+    }
+
+    //bumps the graph version and stamps a row with it
+    private void touchRow(int index)
+    {
+        version++;
+        rowVersions[index] = version;
+    }
+
+    //touches a row for a change that adds or removes a vertex or edge
+    private void touchStructure(int index)
+    {
+        touchRow(index);
+        structureVersion = version;
+    }
+
+    /**
+     * Registers a listener for changes to this graph. Changes are buffered and delivered
+     * in batches, either when the buffer fills up or when flushChanges() is called, so a
+     * listener that needs to be current should flush before reading.
+     *
+     * @param listener the listener to add
+     */
+    public void addChangeListener(ChangeListener<V> listener)
+    {
+        if (changes == null)
+        {
+            changes = new ChangeBatch<>(CHANGE_BUFFER_SIZE);
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener. Changes already buffered are delivered first, so the
+     * listener sees everything up to its removal.
+     *
+     * @param listener the listener to remove
+     * @return true if the listener was registered, otherwise false
+     */
+    public boolean removeChangeListener(ChangeListener<V> listener)
+    {
+        if (!listeners.contains(listener))
+        {
+            return false;
+        }
+        flushChanges();
+        listeners.remove(listener);
+        if (listeners.isEmpty())
+        {
+            changes = null; //stop recording
+        }
+        return true;
+    }
+
+    /**
+     * Delivers all buffered changes to the listeners now.
+     */
+    public void flushChanges()
+    {
+        if (changes != null)
+        {
+            changes.deliver(listeners);
+        }
+    }
+
+    //records a change if anyone is listening
+    private void emit(ChangeType type, V source, V destination, int weight, int previousWeight)
+    {
+        if (changes != null)
+        {
+            changes.record(type, source, destination, weight, previousWeight, listeners);
+        }
+    }
+
+    /**
+     * Returns a read-only view of the subgraph induced by the given vertices. The view
+     * shares this graph's matrix and only masks out rows and columns, so nothing is copied.
+     * Vertices that are not in this graph are ignored.
+     *
+     * @param vertices the vertices to keep
+     * @return a view with the given vertices and every edge between them
+     */
+    public SubgraphView<V> inducedSubgraph(Set<V> vertices)
+    {
+        BitSet mask = new BitSet(adjMatrix.length);
+        for (V vertex : vertices)
+        {
+            Integer index = table.getValue(vertex);
+            if (index != null)
+            {
+                mask.set(index);
+            }
+        }
+        return new SubgraphView<>(this, mask);
+    }
+
+    /**
+     * Returns a read-only view of the ego network around a vertex, which is the subgraph
+     * induced by every vertex reachable from the center by following at most the given
+     * number of outgoing edges.
+     *
+     * @param center the center vertex
+     * @param hops the maximum number of edges from the center, throws an
+     *             IllegalArgumentException if negative
+     * @return a view of the ego network, which is empty if the center is not in the graph
+     */
+    public SubgraphView<V> egoNetwork(V center, int hops)
+    {
+        if (hops < 0)
+        {
+            throw new IllegalArgumentException("Hop count cannot be negative: " + hops);
+        }
+
+        BitSet mask = new BitSet(adjMatrix.length);
+        Integer start = table.getValue(center);
+        if (start == null)
+        {
+            return new SubgraphView<>(this, mask);
+        }
+
+        //breadth-first search, one frontier per hop
+        ArrayDeque<Integer> frontier = new ArrayDeque<>();
+        frontier.add(start);
+        mask.set(start);
+        for (int hop = 0; hop < hops && !frontier.isEmpty(); hop++)
+        {
+            for (int remaining = frontier.size(); remaining > 0; remaining--)
+            {
+                int[] row = adjMatrix[frontier.poll()];
+                for (int j = 0; j < row.length; j++)
+                {
+                    if (row[j] > -1 && !mask.get(j))
+                    {
+                        mask.set(j);
+                        frontier.add(j);
+                    }
+                }
+            }
+        }
+        return new SubgraphView<>(this, mask);
+    }
+
+    /**
+     * Renumbers the vertices so that connected vertices get nearby matrix indices, which
+     * makes row scans during traversals touch less memory. Vertices end up on indices
+     * 0 to vertexSize() - 1. The matrix rows and columns are permuted in place and the
+     * vertex table is rebuilt; the vertices, edges and weights do not change.
+     *
+     * Subgraph views created before the call are no longer valid afterwards.
+     *
+     * @param order the numbering strategy
+     */
+    public void reorder(VertexOrder order)
+    {
+        int[] oldIndices = vertexOrder(order);
+        int length = adjMatrix.length;
+        int[] newIndex = new int[length];
+        Arrays.fill(newIndex, -1);
+        for (int i = 0; i < oldIndices.length; i++)
+        {
+            newIndex[oldIndices[i]] = i;
+        }
+
+        //move row references, then unused rows (all missing edges) after them
+        int[][] rows = new int[length][];
+        int nextUnused = oldIndices.length;
+        for (int i = 0; i < length; i++)
+        {
+            rows[newIndex[i] >= 0 ? newIndex[i] : nextUnused++] = adjMatrix[i];
+        }
+        adjMatrix = rows;
+
+        //permute the columns of each used row through one scratch row
+        int[] scratch = new int[length];
+        for (int i = 0; i < oldIndices.length; i++)
+        {
+            int[] row = adjMatrix[i];
+            Arrays.fill(scratch, -1);
+            for (int j = 0; j < length; j++)
+            {
+                if (row[j] > -1)
+                {
+                    scratch[newIndex[j]] = row[j];
+                }
+            }
+            System.arraycopy(scratch, 0, row, 0, length);
+        }
+
+        //rebuild the vertex table and free list to match
+        Object[] vertices = new Object[oldIndices.length];
+        for (int i = 0; i < oldIndices.length; i++)
+        {
+            vertices[i] = table.getKey(oldIndices[i]);
+        }
+        table.clear();
+        for (int i = 0; i < vertices.length; i++)
+        {
+            @SuppressWarnings("unchecked")
+            V vertex = (V) vertices[i];
+            table.add(vertex, i);
+        }
+        stack.clear();
+        stack.push(oldIndices.length);
+
+        version++;
+        structureVersion = version;
+        Arrays.fill(rowVersions, version);
+    }
+
+    //lists the used indices in the order given by the strategy
+    private int[] vertexOrder(VertexOrder order)
+    {
+        //undirected neighbor lists, in index order, without self-loops
+        int length = adjMatrix.length;
+        int[][] neighbors = new int[length][];
+        int[] buffer = new int[length];
+        for (int i = 0; i < length; i++)
+        {
+            int count = 0;
+            for (int j = 0; table.getKey(i) != null && j < length; j++)
+            {
+                if (i != j && (adjMatrix[i][j] > -1 || adjMatrix[j][i] > -1))
+                {
+                    buffer[count++] = j;
+                }
+            }
+            neighbors[i] = Arrays.copyOf(buffer, count);
+        }
+
+        Integer[] used = table.valueSet().toArray(new Integer[0]);
+        Arrays.sort(used);
+        switch (order)
+        {
+            case DEGREE_DESCENDING:
+                Arrays.sort(used, (a, b) -> neighbors[b].length != neighbors[a].length
+                        ? neighbors[b].length - neighbors[a].length : a - b);
+                return Arrays.stream(used).mapToInt(Integer::intValue).toArray();
+            case BFS:
+                return breadthFirstOrder(used, neighbors, false);
+            case REVERSE_CUTHILL_MCKEE:
+                int[] result = breadthFirstOrder(used, neighbors, true);
+                for (int i = 0, j = result.length - 1; i < j; i++, j--)
+                {
+                    int swap = result[i];
+                    result[i] = result[j];
+                    result[j] = swap;
+                }
+                return result;
+            default:
+                throw new IllegalArgumentException("Unknown order " + order);
+        }
+    }
+
+    //breadth-first order over every component; Cuthill-McKee starts each component at
+    //its lowest-degree vertex and visits neighbors by increasing degree
+    private int[] breadthFirstOrder(Integer[] used, int[][] neighbors, boolean cuthillMcKee)
+    {
+        Integer[] starts = used.clone();
+        if (cuthillMcKee)
+        {
+            Arrays.sort(starts, (a, b) -> neighbors[a].length != neighbors[b].length
+                    ? neighbors[a].length - neighbors[b].length : a - b);
+        }
+
+        int[] result = new int[used.length];
+        int size = 0;
+        boolean[] visited = new boolean[adjMatrix.length];
+        for (int start : starts)
+        {
+            if (visited[start])
+            {
+                continue;
+            }
+            visited[start] = true;
+            result[size++] = start;
+            for (int head = size - 1; head < size; head++)
+            {
+                int[] next = neighbors[result[head]];
+                if (cuthillMcKee)
+                {
+                    next = Arrays.stream(next).boxed()
+                            .sorted((a, b) -> neighbors[a].length != neighbors[b].length
+                                    ? neighbors[a].length - neighbors[b].length : a - b)
+                            .mapToInt(Integer::intValue).toArray();
+                }
+                for (int neighbor : next)
+                {
+                    if (!visited[neighbor])
+                    {
+                        visited[neighbor] = true;
+                        result[size++] = neighbor;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the matrix index of a vertex.
+     *
+     * @param vertex the vertex to search for
+     * @return the row/column index of the vertex, or -1 if it is not in the graph
+     */
+    public int indexOf(V vertex)
+    {
+        Integer index = table.getValue(vertex);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the vertex stored at a matrix index.
+     *
+     * @param index a row/column index
+     * @return the vertex at that index, or null if the index is unused
+     */
+    public V vertexAt(int index)
+    {
+        return table.getKey(index);
+    }
+
+    /**
+     * Returns the number of rows (and columns) currently allocated in the matrix.
+     * Every vertex index is less than this value.
+     *
+     * @return the matrix capacity
+     */
+    public int capacity()
+    {
+        return adjMatrix.length;
+    }
+
+    /**
+     * Returns the weight stored in a matrix cell.
+     *
+     * @param sourceIndex the row index of the source vertex
+     * @param destIndex the column index of the destination vertex
+     * @return the edge weight, or -1 if there is no edge
+     */
+    public int weightAt(int sourceIndex, int destIndex)
+    {
+        return adjMatrix[sourceIndex][destIndex];
+    }
+
+    //adds an edge by matrix index, used when bulk-copying into a fresh graph
+    void putEdge(int sourceIndex, int destIndex, int weight)
+    {
+        if (adjMatrix[sourceIndex][destIndex] == -1)
+        {
+            edges++;
+        }
+        adjMatrix[sourceIndex][destIndex] = weight;
+        touchStructure(sourceIndex);
     }
 }
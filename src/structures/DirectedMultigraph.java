@@ -0,0 +1,557 @@
+package structures;
+
+import graphs.Edge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An edge-weighted digraph that allows any number of parallel edges between the same
+ * pair of vertices. Each edge gets an int id that stays valid until the edge is removed.
+ *
+ * Edges are stored column by column in parallel primitive arrays rather than as objects.
+ * The optional timestamp, label and cost attributes each get their own column, which is
+ * only allocated the first time that attribute is set. Edges between the same pair are
+ * linked together through the next/previous columns, and a primitive open-addressing
+ * table from the pair to the first edge makes pair lookups constant time without boxing.
+ * @param <V>
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class DirectedMultigraph<V>
+{
+    private static final double GROWTH_FACTOR = 1.5;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private VertexIndexer<V> indexer = new VertexIndexer<>();
+    private PairTable pairHeads = new PairTable();
+
+    //edge columns, a free slot has a source of NONE
+    private int[] sources = new int[INITIAL_CAPACITY];
+    private int[] destinations = new int[INITIAL_CAPACITY];
+    private int[] weights = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] previous = new int[INITIAL_CAPACITY];
+
+    //attribute columns, allocated on first use
+    private long[] timestamps = null;
+    private int[] labels = null;
+    private double[] costs = null;
+    private Bijection<String, Integer> labelTable = new Bijection<>();
+
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    private int highWater = 0;
+    private int edges = 0;
+
+    /**
+     * Creates an empty multigraph.
+     */
+    public DirectedMultigraph()
+    {
+        Arrays.fill(sources, NONE);
+    }
+
+    /**
+     * Adds a new vertex to the graph. If the vertex already
+     * exists, then no change is made to the graph.
+     *
+     * @param vertex the new vertex
+     * @return true if the vertex was added, otherwise false
+     */
+    public boolean addVertex(V vertex)
+    {
+        if (indexer.contains(vertex))
+        {
+            return false;
+        }
+        indexer.add(vertex);
+        return true;
+    }
+
+    /**
+     * Adds a new edge to the graph, even if the vertices are already joined by other edges.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException
+     *               if the weight is negative
+     * @return the id of the new edge, or -1 if either vertex is not in the graph
+     */
+    public int addEdge(V source, V destination, int weight)
+    {
+        if (weight < 0)
+        {
+            throw new IllegalArgumentException("Edge weight cannot be negative: " + weight);
+        }
+        int sourceIndex = indexer.indexOf(source), destIndex = indexer.indexOf(destination);
+        if (sourceIndex < 0 || destIndex < 0)
+        {
+            return NONE;
+        }
+
+        int id = allocateId();
+        sources[id] = sourceIndex;
+        destinations[id] = destIndex;
+        weights[id] = weight;
+
+        //push the edge onto the front of its pair's list
+        int head = pairHeads.put(sourceIndex, destIndex, id);
+        next[id] = head;
+        previous[id] = NONE;
+        if (head != NONE)
+        {
+            previous[head] = id;
+        }
+        edges++;
+        return id;
+    }
+
+    /**
+     * Adds a new edge with all of its attributes set.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException
+     *               if the weight is negative
+     * @param timestamp the edge timestamp
+     * @param label the edge label, or null for none
+     * @param cost the edge cost
+     * @return the id of the new edge, or -1 if either vertex is not in the graph
+     */
+    public int addEdge(V source, V destination, int weight, long timestamp, String label, double cost)
+    {
+        int id = addEdge(source, destination, weight);
+        if (id != NONE)
+        {
+            setTimestamp(id, timestamp);
+            setLabel(id, label);
+            setCost(id, cost);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     * @return the vertex count
+     */
+    public int vertexSize()
+    {
+        return indexer.size();
+    }
+
+    /**
+     * Returns the number of edges in the graph, counting every parallel edge.
+     * @return the edge count
+     */
+    public int edgeSize()
+    {
+        return edges;
+    }
+
+    /**
+     * Reports whether a vertex is in the graph or not.
+     * @param vertex a vertex to search for
+     * @return true if the vertex is in the graph, or false otherwise
+     */
+    public boolean containsVertex(V vertex)
+    {
+        return indexer.contains(vertex);
+    }
+
+    /**
+     * Reports whether at least one edge joins two vertices.
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return true if an edge is in the graph, or false otherwise
+     */
+    public boolean containsEdge(V source, V destination)
+    {
+        return headOf(source, destination) != NONE;
+    }
+
+    /**
+     * Returns the number of parallel edges between two vertices.
+     * @param source the source vertex of the edges
+     * @param destination the destination vertex of the edges
+     * @return the edge count, or 0 if the vertices are not joined
+     */
+    public int edgeCount(V source, V destination)
+    {
+        int count = 0;
+        for (int id = headOf(source, destination); id != NONE; id = next[id])
+        {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the ids of every edge between two vertices, newest first.
+     * @param source the source vertex of the edges
+     * @param destination the destination vertex of the edges
+     * @return the edge ids, which is empty if the vertices are not joined
+     */
+    public int[] edgeIds(V source, V destination)
+    {
+        int[] ids = new int[edgeCount(source, destination)];
+        int position = 0;
+        for (int id = headOf(source, destination); id != NONE; id = next[id])
+        {
+            ids[position++] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Reports whether an edge id refers to an edge in the graph.
+     * @param id an edge id
+     * @return true if the edge exists, otherwise false
+     */
+    public boolean containsEdgeId(int id)
+    {
+        return id >= 0 && id < highWater && sources[id] != NONE;
+    }
+
+    /**
+     * Returns the source vertex of an edge.
+     * @param id an edge id
+     * @return the source vertex
+     */
+    public V source(int id)
+    {
+        return indexer.vertexAt(sources[checkId(id)]);
+    }
+
+    /**
+     * Returns the destination vertex of an edge.
+     * @param id an edge id
+     * @return the destination vertex
+     */
+    public V destination(int id)
+    {
+        return indexer.vertexAt(destinations[checkId(id)]);
+    }
+
+    /**
+     * Returns the weight of an edge.
+     * @param id an edge id
+     * @return the edge weight
+     */
+    public int weight(int id)
+    {
+        return weights[checkId(id)];
+    }
+
+    /**
+     * Returns the timestamp of an edge.
+     * @param id an edge id
+     * @return the timestamp, or 0 if it was never set
+     */
+    public long timestamp(int id)
+    {
+        checkId(id);
+        return timestamps == null ? 0 : timestamps[id];
+    }
+
+    /**
+     * Sets the timestamp of an edge.
+     * @param id an edge id
+     * @param timestamp the new timestamp
+     */
+    public void setTimestamp(int id, long timestamp)
+    {
+        checkId(id);
+        if (timestamps == null)
+        {
+            timestamps = new long[sources.length];
+        }
+        timestamps[id] = timestamp;
+    }
+
+    /**
+     * Returns the label of an edge.
+     * @param id an edge id
+     * @return the label, or null if it was never set
+     */
+    public String label(int id)
+    {
+        checkId(id);
+        return labels == null || labels[id] == NONE ? null : labelTable.getKey(labels[id]);
+    }
+
+    /**
+     * Sets the label of an edge. Labels are interned, so each distinct label
+     * is stored once no matter how many edges use it.
+     * @param id an edge id
+     * @param label the new label, or null to clear it
+     */
+    public void setLabel(int id, String label)
+    {
+        checkId(id);
+        if (labels == null)
+        {
+            if (label == null)
+            {
+                return;
+            }
+            labels = new int[sources.length];
+            Arrays.fill(labels, NONE);
+        }
+        if (label == null)
+        {
+            labels[id] = NONE;
+            return;
+        }
+        Integer labelId = labelTable.getValue(label);
+        if (labelId == null)
+        {
+            labelId = labelTable.keySet().size();
+            labelTable.add(label, labelId);
+        }
+        labels[id] = labelId;
+    }
+
+    /**
+     * Returns the cost of an edge.
+     * @param id an edge id
+     * @return the cost, or 0 if it was never set
+     */
+    public double cost(int id)
+    {
+        checkId(id);
+        return costs == null ? 0 : costs[id];
+    }
+
+    /**
+     * Sets the cost of an edge.
+     * @param id an edge id
+     * @param cost the new cost
+     */
+    public void setCost(int id, double cost)
+    {
+        checkId(id);
+        if (costs == null)
+        {
+            costs = new double[sources.length];
+        }
+        costs[id] = cost;
+    }
+
+    /**
+     * Returns a set with all vertices in the graph.
+     * @return a vertex set
+     */
+    public Set<V> vertices()
+    {
+        return indexer.vertices();
+    }
+
+    /**
+     * Returns every edge in the graph. A list is used because Edge ignores
+     * weights in equals(), so parallel edges would collapse in a set.
+     * @return an edge list
+     */
+    public List<Edge<V>> edges()
+    {
+        List<Edge<V>> allEdges = new ArrayList<>(edges);
+        for (int id = 0; id < highWater; id++)
+        {
+            if (sources[id] != NONE)
+            {
+                allEdges.add(new Edge<>(indexer.vertexAt(sources[id]),
+                        indexer.vertexAt(destinations[id]), weights[id]));
+            }
+        }
+        return allEdges;
+    }
+
+    /**
+     * Removes a single edge from the graph. Its id may be reused by a later edge.
+     *
+     * @param id the id of the edge to remove
+     * @return true if the edge was found and removed, otherwise false
+     */
+    public boolean removeEdge(int id)
+    {
+        if (!containsEdgeId(id))
+        {
+            return false;
+        }
+
+        //unlink the edge from its pair's list
+        if (previous[id] != NONE)
+        {
+            next[previous[id]] = next[id];
+        }
+        else if (next[id] != NONE)
+        {
+            pairHeads.put(sources[id], destinations[id], next[id]);
+        }
+        else
+        {
+            pairHeads.remove(sources[id], destinations[id]);
+        }
+        if (next[id] != NONE)
+        {
+            previous[next[id]] = previous[id];
+        }
+
+        releaseId(id);
+        edges--;
+        return true;
+    }
+
+    /**
+     * Removes every edge between two vertices.
+     *
+     * @param source the source vertex of the edges
+     * @param destination the destination vertex of the edges
+     * @return the number of edges removed
+     */
+    public int removeEdges(V source, V destination)
+    {
+        int sourceIndex = indexer.indexOf(source), destIndex = indexer.indexOf(destination);
+        if (sourceIndex < 0 || destIndex < 0)
+        {
+            return 0;
+        }
+        int head = pairHeads.remove(sourceIndex, destIndex);
+
+        int removed = 0;
+        for (int id = head; id != NONE; )
+        {
+            int following = next[id];
+            releaseId(id);
+            removed++;
+            id = following;
+        }
+        edges -= removed;
+        return removed;
+    }
+
+    /**
+     * Removes a vertex and every edge touching it. This scans the edge columns once.
+     *
+     * @param vertex the vertex to search for and remove
+     * @return true if the vertex was found and removed, otherwise false
+     */
+    public boolean removeVertex(V vertex)
+    {
+        int vIndex = indexer.indexOf(vertex);
+        if (vIndex < 0)
+        {
+            return false;
+        }
+        for (int id = 0; id < highWater; id++)
+        {
+            if (sources[id] != NONE && (sources[id] == vIndex || destinations[id] == vIndex))
+            {
+                removeEdge(id);
+            }
+        }
+        indexer.remove(vertex);
+        return true;
+    }
+
+    /**
+     * Removes all vertices and edges from the graph.
+     */
+    public void clear()
+    {
+        indexer.clear();
+        pairHeads.clear();
+        labelTable.clear();
+        Arrays.fill(sources, NONE);
+        timestamps = null;
+        labels = null;
+        costs = null;
+        freeCount = 0;
+        highWater = 0;
+        edges = 0;
+    }
+
+    private int headOf(V source, V destination)
+    {
+        int sourceIndex = indexer.indexOf(source), destIndex = indexer.indexOf(destination);
+        if (sourceIndex < 0 || destIndex < 0)
+        {
+            return NONE;
+        }
+        return pairHeads.get(sourceIndex, destIndex);
+    }
+
+    private int checkId(int id)
+    {
+        if (!containsEdgeId(id))
+        {
+            throw new IllegalArgumentException("No edge with id " + id);
+        }
+        return id;
+    }
+
+    //reuses a released id if there is one, otherwise takes the next slot
+    private int allocateId()
+    {
+        if (freeCount > 0)
+        {
+            return freeIds[--freeCount];
+        }
+        if (highWater == sources.length)
+        {
+            resize();
+        }
+        return highWater++;
+    }
+
+    private void releaseId(int id)
+    {
+        sources[id] = NONE;
+        if (timestamps != null)
+        {
+            timestamps[id] = 0;
+        }
+        if (labels != null)
+        {
+            labels[id] = NONE;
+        }
+        if (costs != null)
+        {
+            costs[id] = 0;
+        }
+        if (freeCount == freeIds.length)
+        {
+            freeIds = Arrays.copyOf(freeIds, (int) (freeIds.length * GROWTH_FACTOR) + 1);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    //helper method for growing every column together
+    private void resize()
+    {
+        int oldLength = sources.length;
+        int newLength = (int) (oldLength * GROWTH_FACTOR) + 1;
+        sources = Arrays.copyOf(sources, newLength);
+        Arrays.fill(sources, oldLength, newLength, NONE);
+        destinations = Arrays.copyOf(destinations, newLength);
+        weights = Arrays.copyOf(weights, newLength);
+        next = Arrays.copyOf(next, newLength);
+        previous = Arrays.copyOf(previous, newLength);
+        if (timestamps != null)
+        {
+            timestamps = Arrays.copyOf(timestamps, newLength);
+        }
+        if (labels != null)
+        {
+            labels = Arrays.copyOf(labels, newLength);
+            Arrays.fill(labels, oldLength, newLength, NONE);
+        }
+        if (costs != null)
+        {
+            costs = Arrays.copyOf(costs, newLength);
+        }
+    }
+}
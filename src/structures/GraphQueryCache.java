@@ -0,0 +1,422 @@
+package structures;
+
+import graphs.Edge;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Caches the results of expensive queries against a DirectedGraph.
+ *
+ * Each entry remembers the graph version it was computed at. Queries that only read a
+ * few matrix rows can report those rows, and their entries stay valid as long as none
+ * of those rows has changed, even if unrelated parts of the graph were modified. Other
+ * entries are dropped as soon as the graph version moves.
+ *
+ * Entries are evicted in least-recently-used order once their total weight passes the
+ * limit. By default every entry weighs 1, so the limit is an entry count.
+ * @param <V>
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class GraphQueryCache<V>
+{
+    private final DirectedGraph<V> graph;
+    private final long maxWeight;
+    private final ToIntFunction<Object> weigher;
+    private LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    /**
+     * A query that records every matrix row it reads, so its result can outlive
+     * changes to other rows.
+     *
+     * @param <V> the type of the vertices
+     * @param <R> the type of the result
+     */
+    @FunctionalInterface
+    public interface RowQuery<V, R>
+    {
+        /**
+         * Runs the query.
+         *
+         * @param graph the graph to query
+         * @param rowsRead a bitset the query must set for every row index it reads
+         * @return the query result
+         */
+        R compute(DirectedGraph<V> graph, BitSet rowsRead);
+    }
+
+    /**
+     * Creates a cache that holds up to the given number of entries.
+     *
+     * @param graph the graph to cache queries for
+     * @param maxEntries the maximum number of entries
+     */
+    public GraphQueryCache(DirectedGraph<V> graph, int maxEntries)
+    {
+        this(graph, maxEntries, value -> 1);
+    }
+
+    /**
+     * Creates a cache bounded by the total weight of its results.
+     *
+     * @param graph the graph to cache queries for
+     * @param maxWeight the maximum total weight
+     * @param weigher computes the weight of a result, for example its element count
+     */
+    public GraphQueryCache(DirectedGraph<V> graph, long maxWeight, ToIntFunction<Object> weigher)
+    {
+        if (maxWeight <= 0)
+        {
+            throw new IllegalArgumentException("Maximum weight must be positive: " + maxWeight);
+        }
+        this.graph = graph;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns a cached result, computing it if it is missing or the graph has changed
+     * since it was computed.
+     *
+     * @param key a key identifying the query and its arguments
+     * @param query computes the result from the graph
+     * @param <R> the type of the result
+     * @return the query result
+     */
+    public <R> R get(Object key, Function<DirectedGraph<V>, R> query)
+    {
+        return lookup(key, (g, rows) -> query.apply(g), false);
+    }
+
+    /**
+     * Returns a cached result, computing it if it is missing or any row it read has
+     * changed since it was computed.
+     *
+     * @param key a key identifying the query and its arguments
+     * @param query computes the result and records the rows it reads
+     * @param <R> the type of the result
+     * @return the query result
+     */
+    public <R> R get(Object key, RowQuery<V, R> query)
+    {
+        return lookup(key, query, true);
+    }
+
+    /**
+     * Returns every edge in the graph, cached until the graph changes.
+     * @return an unmodifiable edge set
+     */
+    public Set<Edge<V>> edges()
+    {
+        return get(new QueryKey("edges", null),
+                (Function<DirectedGraph<V>, Set<Edge<V>>>) g -> Collections.unmodifiableSet(g.edges()));
+    }
+
+    /**
+     * Returns every vertex reachable from a vertex, including the vertex itself. The
+     * result stays cached while no row reachable from the vertex changes.
+     *
+     * @param source the start vertex
+     * @return an unmodifiable set of reachable vertices, empty if the vertex is missing
+     */
+    public Set<V> reachableFrom(V source)
+    {
+        if (!graph.containsVertex(source))
+        {
+            misses++; //still a lookup the cache could not answer
+            return Collections.emptySet();
+        }
+        return get(new QueryKey("reachable", source), (RowQuery<V, Set<V>>) (g, rows) -> {
+            Set<V> reached = new HashSet<>();
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            int start = g.indexOf(source);
+            queue.add(start);
+            rows.set(start);
+            while (!queue.isEmpty())
+            {
+                int row = queue.poll();
+                reached.add(g.vertexAt(row));
+                for (int j = 0; j < g.capacity(); j++)
+                {
+                    if (g.weightAt(row, j) > -1 && !rows.get(j))
+                    {
+                        rows.set(j);
+                        queue.add(j);
+                    }
+                }
+            }
+            return Collections.unmodifiableSet(reached);
+        });
+    }
+
+    /**
+     * Returns the shortest path distance from a vertex to every vertex it can reach,
+     * using edge weights as lengths. The result stays cached while no row reachable
+     * from the vertex changes.
+     *
+     * @param source the start vertex
+     * @return an unmodifiable map of distances, empty if the vertex is missing
+     */
+    public Map<V, Long> distancesFrom(V source)
+    {
+        if (!graph.containsVertex(source))
+        {
+            misses++; //still a lookup the cache could not answer
+            return Collections.emptyMap();
+        }
+        return get(new QueryKey("distances", source), (RowQuery<V, Map<V, Long>>) (g, rows) -> {
+            Map<V, Long> distances = new HashMap<>();
+            long[] best = new long[g.capacity()];
+            Arrays.fill(best, Long.MAX_VALUE);
+            PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+            int start = g.indexOf(source);
+            best[start] = 0;
+            queue.add(new long[] {0, start});
+            while (!queue.isEmpty())
+            {
+                long[] next = queue.poll();
+                int row = (int) next[1];
+                if (next[0] > best[row] || rows.get(row))
+                {
+                    continue; //stale queue entry
+                }
+                rows.set(row);
+                distances.put(g.vertexAt(row), next[0]);
+                for (int j = 0; j < g.capacity(); j++)
+                {
+                    int weight = g.weightAt(row, j);
+                    if (weight > -1 && next[0] + weight < best[j])
+                    {
+                        best[j] = next[0] + weight;
+                        queue.add(new long[] {best[j], j});
+                    }
+                }
+            }
+            return Collections.unmodifiableMap(distances);
+        });
+    }
+
+    /**
+     * Drops a single entry.
+     * @param key the key of the entry
+     */
+    public void invalidate(Object key)
+    {
+        Entry entry = entries.remove(key);
+        if (entry != null)
+        {
+            totalWeight -= entry.weight;
+            invalidations++;
+        }
+    }
+
+    /**
+     * Drops every entry.
+     */
+    public void invalidateAll()
+    {
+        invalidations += entries.size();
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     * @return the entry count
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total weight of the cached entries.
+     * @return the total weight
+     */
+    public long weight()
+    {
+        return totalWeight;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     * @return the hit count
+     */
+    public long hitCount()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that had to run the query.
+     * @return the miss count
+     */
+    public long missCount()
+    {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay under the weight limit.
+     * @return the eviction count
+     */
+    public long evictionCount()
+    {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of entries dropped because the graph changed or
+     * because they were invalidated by hand.
+     * @return the invalidation count
+     */
+    public long invalidationCount()
+    {
+        return invalidations;
+    }
+
+    /**
+     * Returns the fraction of lookups answered from the cache.
+     * @return the hit rate, or 0 if there were no lookups
+     */
+    public double hitRate()
+    {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R lookup(Object key, RowQuery<V, R> query, boolean trackRows)
+    {
+        Entry entry = entries.get(key);
+        if (entry != null)
+        {
+            if (isCurrent(entry))
+            {
+                hits++;
+                return (R) entry.value;
+            }
+            invalidate(key);
+        }
+
+        misses++;
+        BitSet rowsRead = new BitSet();
+        long version = graph.version();
+        R value = query.compute(graph, rowsRead);
+
+        Entry fresh = new Entry(value, weigher.applyAsInt(value), version,
+                trackRows ? rowsRead.stream().toArray() : null);
+        if (fresh.weight <= maxWeight)
+        {
+            entries.put(key, fresh);
+            totalWeight += fresh.weight;
+            evict();
+        }
+        return value;
+    }
+
+    //an entry is current if the graph is unchanged, or none of its rows changed
+    private boolean isCurrent(Entry entry)
+    {
+        long version = graph.version();
+        if (entry.version == version)
+        {
+            return true;
+        }
+        if (entry.rows == null)
+        {
+            return false;
+        }
+        for (int row : entry.rows)
+        {
+            if (graph.rowVersion(row) > entry.version)
+            {
+                return false;
+            }
+        }
+        entry.version = version; //still valid now, so later checks can stop early
+        return true;
+    }
+
+    //removes least recently used entries until the weight limit is met
+    private void evict()
+    {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (totalWeight > maxWeight && iterator.hasNext())
+        {
+            totalWeight -= iterator.next().weight;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    //a cached result with the version and rows it depends on
+    private static class Entry
+    {
+        private final Object value;
+        private final int weight;
+        private final int[] rows;
+        private long version;
+
+        private Entry(Object value, int weight, long version, int[] rows)
+        {
+            this.value = value;
+            this.weight = weight;
+            this.version = version;
+            this.rows = rows;
+        }
+    }
+
+    //key for the built-in queries
+    private static class QueryKey
+    {
+        private final String kind;
+        private final Object argument;
+
+        private QueryKey(String kind, Object argument)
+        {
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass())
+            {
+                return false;
+            }
+            QueryKey key = (QueryKey) other;
+            return kind.equals(key.kind) && Objects.equals(argument, key.argument);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(kind, argument);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package structures;
+
+import graphs.ILongGraph;
+import graphs.LongEdge;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An edge-weighted digraph with long weights, stored in a primitive adjacency matrix.
+ * Edge existence is kept in a separate bitset per row, so no weight value is reserved
+ * as a missing-edge marker and weights are never boxed.
+ * @param <V>
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class LongDirectedGraph<V> implements ILongGraph<V>
+{
+    private static final double GROWTH_FACTOR = 1.5;
+    private static final int INITIAL_CAPACITY = 10;
+
+    private long[][] adjMatrix;
+    private long[][] present;
+    private int edges = 0;
+    private VertexIndexer<V> indexer = new VertexIndexer<>();
+
+    /**
+     * Default constructor that creates an empty 10 x 10 matrix.
+     */
+    public LongDirectedGraph()
+    {
+        adjMatrix = new long[INITIAL_CAPACITY][INITIAL_CAPACITY];
+        present = new long[INITIAL_CAPACITY][words(INITIAL_CAPACITY)];
+    }
+
+    //number of longs needed for a presence row
+    private static int words(int capacity)
+    {
+        return (capacity + 63) >>> 6;
+    }
+
+    @Override
+    public boolean addVertex(V vertex)
+    {
+        if (!indexer.contains(vertex))
+        {
+            if (indexer.size() > adjMatrix.length / 2) //if array is full, resize
+            {
+                resize();
+            }
+            indexer.add(vertex);
+            return true;
+        }
+        return false;
+    }
+
+    //helper method for resizing matrix
+    private void resize()
+    {
+        int oldLength = adjMatrix.length;
+        int newLength = (int) (oldLength * GROWTH_FACTOR);
+        adjMatrix = Arrays.copyOf(adjMatrix, newLength);
+        present = Arrays.copyOf(present, newLength);
+        for (int i = 0; i < oldLength; i++)
+        {
+            adjMatrix[i] = Arrays.copyOf(adjMatrix[i], newLength);
+            present[i] = Arrays.copyOf(present[i], words(newLength));
+        }
+        for (int i = oldLength; i < newLength; i++)
+        {
+            adjMatrix[i] = new long[newLength];
+            present[i] = new long[words(newLength)];
+        }
+    }
+
+    @Override
+    public boolean addEdge(V source, V destination, long weight)
+    {
+        int sourceIndex = indexer.indexOf(source), destIndex = indexer.indexOf(destination);
+        if (sourceIndex >= 0 && destIndex >= 0 && !hasEdgeAt(sourceIndex, destIndex))
+        {
+            adjMatrix[sourceIndex][destIndex] = weight;
+            present[sourceIndex][destIndex >>> 6] |= 1L << destIndex;
+            edges++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int vertexSize()
+    {
+        return indexer.size();
+    }
+
+    @Override
+    public int edgeSize()
+    {
+        return edges;
+    }
+
+    @Override
+    public boolean containsVertex(V vertex)
+    {
+        return indexer.contains(vertex);
+    }
+
+    @Override
+    public boolean containsEdge(V source, V destination)
+    {
+        int sourceIndex = indexer.indexOf(source), destIndex = indexer.indexOf(destination);
+        return sourceIndex >= 0 && destIndex >= 0 && hasEdgeAt(sourceIndex, destIndex);
+    }
+
+    @Override
+    public long edgeWeight(V source, V destination)
+    {
+        int sourceIndex = indexer.indexOf(source), destIndex = indexer.indexOf(destination);
+        if (sourceIndex < 0 || destIndex < 0 || !hasEdgeAt(sourceIndex, destIndex))
+        {
+            throw new NoSuchElementException("No edge " + source + " => " + destination);
+        }
+        return adjMatrix[sourceIndex][destIndex];
+    }
+
+    @Override
+    public Set<V> vertices()
+    {
+        return indexer.vertices();
+    }
+
+    @Override
+    public Set<LongEdge<V>> edges()
+    {
+        HashSet<LongEdge<V>> allEdges = new HashSet<>();
+        for (int i = 0; i < adjMatrix.length; i++)
+        {
+            long[] row = present[i];
+            for (int word = 0; word < row.length; word++)
+            {
+                //visit only the set bits of each presence word
+                for (long bits = row[word]; bits != 0; bits &= bits - 1)
+                {
+                    int j = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    allEdges.add(new LongEdge<>(indexer.vertexAt(i), indexer.vertexAt(j), adjMatrix[i][j]));
+                }
+            }
+        }
+        return allEdges;
+    }
+
+    @Override
+    public boolean removeVertex(V vertex)
+    {
+        int vIndex = indexer.remove(vertex);
+        if (vIndex < 0)
+        {
+            return false;
+        }
+
+        //drop the outgoing row and the incoming column
+        for (long bits : present[vIndex])
+        {
+            edges -= Long.bitCount(bits);
+        }
+        Arrays.fill(present[vIndex], 0);
+        for (long[] row : present)
+        {
+            long mask = 1L << vIndex;
+            if ((row[vIndex >>> 6] & mask) != 0)
+            {
+                row[vIndex >>> 6] &= ~mask;
+                edges--;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(V source, V destination)
+    {
+        int sourceIndex = indexer.indexOf(source), destIndex = indexer.indexOf(destination);
+        if (sourceIndex >= 0 && destIndex >= 0 && hasEdgeAt(sourceIndex, destIndex))
+        {
+            present[sourceIndex][destIndex >>> 6] &= ~(1L << destIndex);
+            edges--;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear()
+    {
+        for (long[] row : present)
+        {
+            Arrays.fill(row, 0);
+        }
+        indexer.clear();
+        edges = 0;
+    }
+
+    /**
+     * Returns the matrix index of a vertex.
+     *
+     * @param vertex the vertex to search for
+     * @return the row/column index of the vertex, or -1 if it is not in the graph
+     */
+    public int indexOf(V vertex)
+    {
+        return indexer.indexOf(vertex);
+    }
+
+    /**
+     * Returns the vertex stored at a matrix index.
+     *
+     * @param index a row/column index
+     * @return the vertex at that index, or null if the index is unused
+     */
+    public V vertexAt(int index)
+    {
+        return indexer.vertexAt(index);
+    }
+
+    /**
+     * Returns the number of rows (and columns) currently allocated in the matrix.
+     * @return the matrix capacity
+     */
+    public int capacity()
+    {
+        return adjMatrix.length;
+    }
+
+    /**
+     * Reports whether a matrix cell holds an edge.
+     *
+     * @param sourceIndex the row index of the source vertex
+     * @param destIndex the column index of the destination vertex
+     * @return true if there is an edge, otherwise false
+     */
+    public boolean hasEdgeAt(int sourceIndex, int destIndex)
+    {
+        return (present[sourceIndex][destIndex >>> 6] & (1L << destIndex)) != 0;
+    }
+
+    /**
+     * Returns the weight stored in a matrix cell. The value is only meaningful
+     * when hasEdgeAt() is true for the same cell.
+     *
+     * @param sourceIndex the row index of the source vertex
+     * @param destIndex the column index of the destination vertex
+     * @return the stored weight
+     */
+    public long weightAt(int sourceIndex, int destIndex)
+    {
+        return adjMatrix[sourceIndex][destIndex];
+    }
+}
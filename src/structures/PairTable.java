@@ -0,0 +1,151 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * A map from (source index, destination index) pairs to int values, stored in two
+ * primitive arrays with open addressing and linear probing, so lookups and inserts
+ * allocate nothing. Keys pack the two indices into a long; since indices are never
+ * negative, a key of -1 marks an empty slot. Removal shifts later entries of the probe
+ * run back instead of leaving tombstones, so probe runs never degrade over time.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+class PairTable
+{
+    static final int NONE = -1;
+    private static final long EMPTY = -1L;
+    private static final int INITIAL_SLOTS = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+
+    PairTable()
+    {
+        keys = new long[INITIAL_SLOTS];
+        values = new int[INITIAL_SLOTS];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    //returns the value of a pair, or NONE if it is missing
+    int get(int sourceIndex, int destIndex)
+    {
+        long key = key(sourceIndex, destIndex);
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask)
+        {
+            if (keys[slot] == key)
+            {
+                return values[slot];
+            }
+        }
+        return NONE;
+    }
+
+    //sets the value of a pair and returns the old one, or NONE if the pair was missing
+    int put(int sourceIndex, int destIndex, int value)
+    {
+        long key = key(sourceIndex, destIndex);
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; keys[slot] != EMPTY; slot = (slot + 1) & mask)
+        {
+            if (keys[slot] == key)
+            {
+                int old = values[slot];
+                values[slot] = value;
+                return old;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length / 2) //keep at least half the slots free
+        {
+            resize();
+        }
+        return NONE;
+    }
+
+    //removes a pair and returns its value, or NONE if the pair was missing
+    int remove(int sourceIndex, int destIndex)
+    {
+        long key = key(sourceIndex, destIndex);
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != key)
+        {
+            if (keys[slot] == EMPTY)
+            {
+                return NONE;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int old = values[slot];
+
+        //pull back every later entry of the run that may not skip the new hole
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask)
+        {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return old;
+    }
+
+    void clear()
+    {
+        keys = new long[INITIAL_SLOTS];
+        values = new int[INITIAL_SLOTS];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    private void resize()
+    {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != EMPTY)
+            {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != EMPTY)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static long key(int sourceIndex, int destIndex)
+    {
+        return ((long) sourceIndex << 32) | (destIndex & 0xFFFFFFFFL);
+    }
+
+    //mixes both halves of the key so rows and columns spread across the table
+    private static int slot(long key, int mask)
+    {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,283 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Answers "can A reach B?" for a DirectedGraph in constant time by keeping the transitive
+ * closure as one bitset row per matrix index. Every vertex reaches itself.
+ *
+ * Mutations made through this index keep it current: an added edge u => v is folded in by
+ * OR-ing v's row into the row of every vertex that reaches u, so no traversal is needed.
+ * Removals cannot be undone that cheaply, so they only mark the index stale, and the next
+ * query rebuilds it once no matter how many removals happened in between. The rebuild runs
+ * Tarjan's algorithm over the matrix and ORs each strongly connected component's successor
+ * rows together, sinks first. Changes made to the graph directly are caught through its
+ * structure version and also trigger a rebuild; weight changes do not affect reachability
+ * and are ignored.
+ * @param <V>
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class ReachabilityIndex<V>
+{
+    private final DirectedGraph<V> graph;
+    private long[][] closure;
+    private long seenVersion;
+    private boolean stale = true;
+    private int rebuilds = 0;
+
+    /**
+     * Creates an index over a graph and builds it.
+     *
+     * @param graph the graph to index
+     */
+    public ReachabilityIndex(DirectedGraph<V> graph)
+    {
+        this.graph = graph;
+        rebuild();
+    }
+
+    /**
+     * Reports whether a path leads from one vertex to another.
+     *
+     * @param source the start vertex
+     * @param destination the end vertex
+     * @return true if the destination is reachable, including when both are the same
+     *         vertex, or false if it is not reachable or either vertex is missing
+     */
+    public boolean canReach(V source, V destination)
+    {
+        int sourceIndex = graph.indexOf(source), destIndex = graph.indexOf(destination);
+        if (sourceIndex < 0 || destIndex < 0)
+        {
+            return false;
+        }
+        refresh();
+        return (closure[sourceIndex][destIndex >>> 6] & (1L << destIndex)) != 0;
+    }
+
+    /**
+     * Adds a vertex to the graph and the index.
+     *
+     * @param vertex the new vertex
+     * @return true if the vertex was added, otherwise false
+     */
+    public boolean addVertex(V vertex)
+    {
+        refresh();
+        if (!graph.addVertex(vertex))
+        {
+            return false;
+        }
+        ensureCapacity();
+        int index = graph.indexOf(vertex);
+        closure[index] = new long[words(closure.length)];
+        closure[index][index >>> 6] |= 1L << index;
+        seenVersion = graph.structureVersion();
+        return true;
+    }
+
+    /**
+     * Adds an edge to the graph and folds it into the index.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight
+     * @return true if the edge was added, otherwise false
+     */
+    public boolean addEdge(V source, V destination, int weight)
+    {
+        refresh();
+        if (!graph.addEdge(source, destination, weight))
+        {
+            return false;
+        }
+        int sourceIndex = graph.indexOf(source), destIndex = graph.indexOf(destination);
+        if ((closure[sourceIndex][destIndex >>> 6] & (1L << destIndex)) == 0)
+        {
+            //everything that reaches the source now reaches what the destination reaches
+            long[] reached = closure[destIndex].clone();
+            for (long[] row : closure)
+            {
+                if (row != null && (row[sourceIndex >>> 6] & (1L << sourceIndex)) != 0)
+                {
+                    for (int word = 0; word < row.length; word++)
+                    {
+                        row[word] |= reached[word];
+                    }
+                }
+            }
+        }
+        seenVersion = graph.structureVersion();
+        return true;
+    }
+
+    /**
+     * Removes an edge from the graph. The index is rebuilt on the next query.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return true if the edge was found and removed, otherwise false
+     */
+    public boolean removeEdge(V source, V destination)
+    {
+        boolean removed = graph.removeEdge(source, destination);
+        stale |= removed;
+        return removed;
+    }
+
+    /**
+     * Removes a vertex from the graph. The index is rebuilt on the next query.
+     *
+     * @param vertex the vertex to remove
+     * @return true if the vertex was found and removed, otherwise false
+     */
+    public boolean removeVertex(V vertex)
+    {
+        boolean removed = graph.removeVertex(vertex);
+        stale |= removed;
+        return removed;
+    }
+
+    /**
+     * Returns the number of full rebuilds so far, including the initial build.
+     * @return the rebuild count
+     */
+    public int rebuildCount()
+    {
+        return rebuilds;
+    }
+
+    //rebuilds if there were removals or outside changes since the last update
+    private void refresh()
+    {
+        if (stale || seenVersion != graph.structureVersion())
+        {
+            rebuild();
+        }
+    }
+
+    private void ensureCapacity()
+    {
+        int capacity = graph.capacity();
+        if (capacity > closure.length)
+        {
+            int words = words(capacity);
+            closure = Arrays.copyOf(closure, capacity);
+            for (int i = 0; i < capacity; i++)
+            {
+                if (closure[i] != null)
+                {
+                    closure[i] = Arrays.copyOf(closure[i], words);
+                }
+            }
+        }
+    }
+
+    private static int words(int capacity)
+    {
+        return (capacity + 63) >>> 6;
+    }
+
+    //Tarjan's strongly connected components, iterative; components finish sinks first
+    private void rebuild()
+    {
+        int n = graph.capacity();
+        int words = words(n);
+        closure = new long[n][];
+
+        int[] order = new int[n];
+        int[] low = new int[n];
+        int[] nextColumn = new int[n];
+        int[] component = new int[n];
+        int[] calls = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(order, -1);
+        int counter = 0, top = 0;
+
+        for (int root = 0; root < n; root++)
+        {
+            if (order[root] >= 0 || graph.vertexAt(root) == null)
+            {
+                continue;
+            }
+            int depth = 0;
+            calls[depth++] = root;
+            order[root] = low[root] = counter++;
+            component[top++] = root;
+            onStack[root] = true;
+
+            while (depth > 0)
+            {
+                int v = calls[depth - 1];
+                int j = nextColumn[v];
+                while (j < n && graph.weightAt(v, j) == -1)
+                {
+                    j++;
+                }
+                nextColumn[v] = j + 1;
+
+                if (j < n)
+                {
+                    if (order[j] < 0)
+                    {
+                        order[j] = low[j] = counter++;
+                        component[top++] = j;
+                        onStack[j] = true;
+                        calls[depth++] = j;
+                    }
+                    else if (onStack[j])
+                    {
+                        low[v] = Math.min(low[v], order[j]);
+                    }
+                    continue;
+                }
+
+                //v is finished
+                depth--;
+                if (depth > 0)
+                {
+                    int parent = calls[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] == order[v])
+                {
+                    //pop the component and give every member one shared closure row
+                    long[] reached = new long[words];
+                    int start = top;
+                    do
+                    {
+                        int member = component[--start];
+                        onStack[member] = false;
+                        reached[member >>> 6] |= 1L << member;
+                    }
+                    while (component[start] != v);
+                    for (int i = start; i < top; i++)
+                    {
+                        int member = component[i];
+                        for (int k = 0; k < n; k++)
+                        {
+                            long[] successor = closure[k];
+                            if (successor != null && graph.weightAt(member, k) > -1)
+                            {
+                                for (int word = 0; word < words; word++)
+                                {
+                                    reached[word] |= successor[word];
+                                }
+                            }
+                        }
+                    }
+                    for (int i = start; i < top; i++)
+                    {
+                        closure[component[i]] = reached;
+                    }
+                    top = start;
+                }
+            }
+        }
+
+        seenVersion = graph.structureVersion();
+        stale = false;
+        rebuilds++;
+    }
+}
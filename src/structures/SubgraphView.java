@@ -0,0 +1,192 @@
+package structures;
+
+import graphs.Edge;
+import graphs.IGraph;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A read-only view over part of a DirectedGraph. The view keeps a bitset mask of the
+ * parent's row indices and answers every query straight from the parent's matrix, so
+ * creating a view is cheap no matter how many edges it covers.
+ *
+ * Edge changes in the parent are visible through the view. Vertex removals are too,
+ * but the mask is fixed when the view is created, so a vertex that later reuses a
+ * masked index will also show up. Use toGraph() to take an independent copy.
+ *
+ * @param <V> the type of the vertices
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class SubgraphView<V> implements IGraph<V>
+{
+    private final DirectedGraph<V> parent;
+    private final BitSet mask;
+
+    SubgraphView(DirectedGraph<V> parent, BitSet mask)
+    {
+        this.parent = parent;
+        this.mask = mask;
+    }
+
+    @Override
+    public boolean addVertex(V vertex)
+    {
+        throw new UnsupportedOperationException("Subgraph views are read-only");
+    }
+
+    @Override
+    public boolean addEdge(V source, V destination, int weight)
+    {
+        throw new UnsupportedOperationException("Subgraph views are read-only");
+    }
+
+    @Override
+    public int vertexSize()
+    {
+        int count = 0;
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1))
+        {
+            if (parent.vertexAt(i) != null)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int edgeSize()
+    {
+        int count = 0;
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1))
+        {
+            for (int j = mask.nextSetBit(0); j >= 0; j = mask.nextSetBit(j + 1))
+            {
+                if (parent.weightAt(i, j) > -1)
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean containsVertex(V vertex)
+    {
+        return indexOf(vertex) >= 0;
+    }
+
+    @Override
+    public boolean containsEdge(V source, V destination)
+    {
+        return edgeWeight(source, destination) > -1;
+    }
+
+    @Override
+    public int edgeWeight(V source, V destination)
+    {
+        int sourceIndex = indexOf(source), destIndex = indexOf(destination);
+        if (sourceIndex < 0 || destIndex < 0)
+        {
+            return -1;
+        }
+        return parent.weightAt(sourceIndex, destIndex);
+    }
+
+    @Override
+    public Set<V> vertices()
+    {
+        Set<V> vertices = new HashSet<>();
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1))
+        {
+            V vertex = parent.vertexAt(i);
+            if (vertex != null)
+            {
+                vertices.add(vertex);
+            }
+        }
+        return vertices;
+    }
+
+    @Override
+    public Set<Edge<V>> edges()
+    {
+        Set<Edge<V>> edges = new HashSet<>();
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1))
+        {
+            for (int j = mask.nextSetBit(0); j >= 0; j = mask.nextSetBit(j + 1))
+            {
+                int weight = parent.weightAt(i, j);
+                if (weight > -1)
+                {
+                    edges.add(new Edge<>(parent.vertexAt(i), parent.vertexAt(j), weight));
+                }
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean removeVertex(V vertex)
+    {
+        throw new UnsupportedOperationException("Subgraph views are read-only");
+    }
+
+    @Override
+    public boolean removeEdge(V source, V destination)
+    {
+        throw new UnsupportedOperationException("Subgraph views are read-only");
+    }
+
+    @Override
+    public void clear()
+    {
+        throw new UnsupportedOperationException("Subgraph views are read-only");
+    }
+
+    /**
+     * Copies the view into a new, compacted DirectedGraph in a single pass over the
+     * masked rows. The copy is independent of the parent graph.
+     *
+     * @return a new graph with the vertices and edges of this view
+     */
+    public DirectedGraph<V> toGraph()
+    {
+        DirectedGraph<V> copy = new DirectedGraph<>();
+        int[] newIndex = new int[mask.length()];
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1))
+        {
+            V vertex = parent.vertexAt(i);
+            newIndex[i] = -1;
+            if (vertex != null)
+            {
+                copy.addVertex(vertex);
+                newIndex[i] = copy.indexOf(vertex);
+            }
+        }
+
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1))
+        {
+            for (int j = mask.nextSetBit(0); j >= 0; j = mask.nextSetBit(j + 1))
+            {
+                int weight = parent.weightAt(i, j);
+                if (weight > -1 && newIndex[i] >= 0 && newIndex[j] >= 0)
+                {
+                    copy.putEdge(newIndex[i], newIndex[j], weight);
+                }
+            }
+        }
+        return copy;
+    }
+
+    //maps a vertex to its parent index, or -1 if it is outside the view
+    private int indexOf(V vertex)
+    {
+        int index = parent.indexOf(vertex);
+        return index >= 0 && mask.get(index) ? index : -1;
+    }
+}
@@ -0,0 +1,510 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An edge-weighted digraph built from a stream of timestamped edge events, where only
+ * the events inside a sliding time window are kept.
+ *
+ * Events are grouped into fixed-width time buckets stored as primitive columns. When the
+ * watermark (the newest timestamp seen) moves forward, every bucket that has fallen out of
+ * the window is dropped as a batch and its events are subtracted from the live adjacency,
+ * so queries never wait on a rebuild. Vertices are added with their first live event and
+ * removed with their last one, which keeps memory proportional to the window. The live
+ * pairs are kept in a primitive open-addressing table that points into parallel pair
+ * columns, and each vertex's out-neighbors in an int array, so a live pair costs no
+ * objects of its own.
+ *
+ * Several events between the same pair count as one edge; its weight is the weight of
+ * the newest live event.
+ * @param <V>
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class TemporalGraph<V>
+{
+    private static final int BUCKETS_PER_WINDOW = 64;
+
+    private final long windowLength;
+    private final long bucketWidth;
+    private long watermark = Long.MIN_VALUE;
+    private int events = 0;
+
+    private TreeMap<Long, Bucket> buckets = new TreeMap<>();
+    private VertexIndexer<V> indexer = new VertexIndexer<>();
+    private int[] references = new int[16];
+
+    //live pairs, mapped to a slot in the pair columns
+    private PairTable pairs = new PairTable();
+    private int[] pairCounts = new int[16];
+    private int[] pairWeights = new int[16];
+    private long[] pairTimestamps = new long[16];
+    private int[] pairPositions = new int[16]; //position in the source's neighbor list
+    private int[] freePairs = new int[16];
+    private int freePairCount = 0;
+    private int pairHighWater = 0;
+
+    //out-neighbors of every vertex index, unordered
+    private int[][] neighborLists = new int[16][];
+    private int[] neighborCounts = new int[16];
+
+    /**
+     * Creates a temporal graph with the given window, split into 64 buckets.
+     *
+     * @param windowLength how long an event stays in the graph, in timestamp units
+     */
+    public TemporalGraph(long windowLength)
+    {
+        this(windowLength, Math.max(1, windowLength / BUCKETS_PER_WINDOW));
+    }
+
+    /**
+     * Creates a temporal graph with the given window and eviction granularity.
+     *
+     * @param windowLength how long an event stays in the graph, in timestamp units
+     * @param bucketWidth the width of each eviction batch, in timestamp units; events
+     *                    can outlive the window by up to this amount
+     */
+    public TemporalGraph(long windowLength, long bucketWidth)
+    {
+        if (windowLength <= 0 || bucketWidth <= 0)
+        {
+            throw new IllegalArgumentException("Window and bucket width must be positive");
+        }
+        this.windowLength = windowLength;
+        this.bucketWidth = bucketWidth;
+    }
+
+    /**
+     * Adds an edge event. Vertices are added automatically. If the timestamp is newer than
+     * the watermark, the window slides forward first and expired events are evicted.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException
+     *               if the weight is negative
+     * @param timestamp the time of the event
+     * @return true if the event was added, or false if it is already outside the window
+     */
+    public boolean addEdge(V source, V destination, int weight, long timestamp)
+    {
+        if (weight < 0)
+        {
+            throw new IllegalArgumentException("Edge weight cannot be negative: " + weight);
+        }
+        advanceTo(timestamp);
+        if (isExpired(timestamp))
+        {
+            return false;
+        }
+
+        int sourceIndex = acquire(source), destIndex = acquire(destination);
+        long bucketId = Math.floorDiv(timestamp, bucketWidth);
+        Bucket bucket = buckets.get(bucketId);
+        if (bucket == null)
+        {
+            bucket = new Bucket();
+            buckets.put(bucketId, bucket);
+        }
+        bucket.add(sourceIndex, destIndex, weight, timestamp);
+
+        int pair = pairs.get(sourceIndex, destIndex);
+        if (pair == PairTable.NONE)
+        {
+            pair = allocatePair();
+            pairs.put(sourceIndex, destIndex, pair);
+            pairCounts[pair] = 0;
+            pairPositions[pair] = addNeighbor(sourceIndex, destIndex);
+        }
+        pairCounts[pair]++;
+        if (pairCounts[pair] == 1 || timestamp >= pairTimestamps[pair])
+        {
+            pairTimestamps[pair] = timestamp;
+            pairWeights[pair] = weight;
+        }
+        events++;
+        return true;
+    }
+
+    /**
+     * Moves the watermark forward and evicts every bucket that has left the window.
+     * Watermarks older than the current one are ignored.
+     *
+     * @param time the new watermark
+     * @return the number of events evicted
+     */
+    public int advanceTo(long time)
+    {
+        if (time <= watermark)
+        {
+            return 0;
+        }
+        watermark = time;
+
+        int evicted = 0;
+        while (!buckets.isEmpty())
+        {
+            //a bucket expires once its newest possible timestamp is out of the window
+            if (!isExpired(bucketEnd(buckets.firstKey())))
+            {
+                break;
+            }
+            evicted += evict(buckets.pollFirstEntry().getValue());
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns the newest timestamp seen so far.
+     * @return the watermark, or Long.MIN_VALUE if no events were added
+     */
+    public long watermark()
+    {
+        return watermark;
+    }
+
+    /**
+     * Returns the number of vertices with at least one live event.
+     * @return the vertex count
+     */
+    public int vertexSize()
+    {
+        return indexer.size();
+    }
+
+    /**
+     * Returns the number of distinct vertex pairs joined by live events.
+     * @return the edge count
+     */
+    public int edgeSize()
+    {
+        return pairs.size();
+    }
+
+    /**
+     * Returns the number of live events.
+     * @return the event count
+     */
+    public int eventSize()
+    {
+        return events;
+    }
+
+    /**
+     * Reports whether a vertex has live events.
+     * @param vertex a vertex to search for
+     * @return true if the vertex is in the graph, or false otherwise
+     */
+    public boolean containsVertex(V vertex)
+    {
+        return indexer.contains(vertex);
+    }
+
+    /**
+     * Reports whether a live event joins two vertices.
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return true if edge is in the graph, or false otherwise
+     */
+    public boolean containsEdge(V source, V destination)
+    {
+        return pairOf(source, destination) != PairTable.NONE;
+    }
+
+    /**
+     * Returns the weight of the newest live event between two vertices.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the edge weight, or -1 if the edge is not found
+     */
+    public int edgeWeight(V source, V destination)
+    {
+        int pair = pairOf(source, destination);
+        return pair == PairTable.NONE ? -1 : pairWeights[pair];
+    }
+
+    /**
+     * Returns the number of live events between two vertices.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the event count
+     */
+    public int eventCount(V source, V destination)
+    {
+        int pair = pairOf(source, destination);
+        return pair == PairTable.NONE ? 0 : pairCounts[pair];
+    }
+
+    /**
+     * Returns the destinations of every live edge leaving a vertex.
+     * @param vertex the source vertex
+     * @return the neighbor set, which is empty if the vertex is not in the graph
+     */
+    public Set<V> neighbors(V vertex)
+    {
+        Set<V> neighbors = new HashSet<>();
+        int index = indexer.indexOf(vertex);
+        if (index >= 0)
+        {
+            for (int i = 0; i < neighborCounts[index]; i++)
+            {
+                neighbors.add(indexer.vertexAt(neighborLists[index][i]));
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * Returns a set with all vertices in the graph.
+     * @return a vertex set
+     */
+    public Set<V> vertices()
+    {
+        return indexer.vertices();
+    }
+
+    /**
+     * Copies the current window into a new DirectedGraph.
+     * @return a snapshot of the live edges
+     */
+    public DirectedGraph<V> snapshot()
+    {
+        return snapshot(watermark);
+    }
+
+    /**
+     * Copies the events in the window ending at the given time into a new DirectedGraph,
+     * that is every event with a timestamp in (time - window, time]. Only events that have
+     * not been evicted yet can appear, so times far behind the watermark give partial views.
+     *
+     * @param time the end of the window
+     * @return a snapshot of the edges as of the given time
+     */
+    public DirectedGraph<V> snapshot(long time)
+    {
+        DirectedGraph<V> snapshot = new DirectedGraph<>();
+        //newest timestamp copied so far for each pair
+        PairTable newest = new PairTable();
+        long[] newestTimes = new long[16];
+        int seen = 0;
+        for (Bucket bucket : buckets.values())
+        {
+            for (int i = 0; i < bucket.size; i++)
+            {
+                long timestamp = bucket.timestamps[i];
+                if (timestamp > time || isOutside(timestamp, time))
+                {
+                    continue;
+                }
+                V source = indexer.vertexAt(bucket.sources[i]);
+                V destination = indexer.vertexAt(bucket.destinations[i]);
+                int slot = newest.get(bucket.sources[i], bucket.destinations[i]);
+                if (slot == PairTable.NONE)
+                {
+                    if (seen == newestTimes.length)
+                    {
+                        newestTimes = Arrays.copyOf(newestTimes, seen * 2);
+                    }
+                    slot = seen++;
+                    newest.put(bucket.sources[i], bucket.destinations[i], slot);
+                    newestTimes[slot] = timestamp;
+                }
+                if (timestamp >= newestTimes[slot])
+                {
+                    newestTimes[slot] = timestamp;
+                    snapshot.addVertex(source);
+                    snapshot.addVertex(destination);
+                    snapshot.removeEdge(source, destination);
+                    snapshot.addEdge(source, destination, bucket.weights[i]);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Removes every event and vertex. The watermark is kept.
+     */
+    public void clear()
+    {
+        buckets.clear();
+        indexer.clear();
+        Arrays.fill(references, 0);
+        pairs.clear();
+        freePairCount = 0;
+        pairHighWater = 0;
+        Arrays.fill(neighborLists, null);
+        Arrays.fill(neighborCounts, 0);
+        events = 0;
+    }
+
+    private boolean isExpired(long timestamp)
+    {
+        return watermark != Long.MIN_VALUE && timestamp <= watermark && isOutside(timestamp, watermark);
+    }
+
+    //true if a timestamp no newer than end is at least a window older than it; the gap is
+    //compared unsigned so timestamps at opposite ends of the long range cannot overflow
+    private boolean isOutside(long timestamp, long end)
+    {
+        return Long.compareUnsigned(end - timestamp, windowLength) >= 0;
+    }
+
+    //the newest timestamp a bucket can hold, clamped for the last bucket before Long.MAX_VALUE
+    private long bucketEnd(long bucketId)
+    {
+        return bucketId >= Long.MAX_VALUE / bucketWidth ? Long.MAX_VALUE : (bucketId + 1) * bucketWidth - 1;
+    }
+
+    //subtracts a bucket's events from the live state
+    private int evict(Bucket bucket)
+    {
+        for (int i = 0; i < bucket.size; i++)
+        {
+            int sourceIndex = bucket.sources[i], destIndex = bucket.destinations[i];
+            int pair = pairs.get(sourceIndex, destIndex);
+            if (--pairCounts[pair] == 0)
+            {
+                pairs.remove(sourceIndex, destIndex);
+                removeNeighbor(sourceIndex, pairPositions[pair]);
+                releasePair(pair);
+            }
+            release(sourceIndex);
+            release(destIndex);
+        }
+        events -= bucket.size;
+        return bucket.size;
+    }
+
+    //returns the index of a vertex, adding it if needed, and counts one more reference
+    private int acquire(V vertex)
+    {
+        int index = indexer.indexOf(vertex);
+        if (index < 0)
+        {
+            index = indexer.add(vertex);
+            if (index >= references.length)
+            {
+                int capacity = Math.max(index + 1, references.length * 2);
+                references = Arrays.copyOf(references, capacity);
+                neighborLists = Arrays.copyOf(neighborLists, capacity);
+                neighborCounts = Arrays.copyOf(neighborCounts, capacity);
+            }
+        }
+        references[index]++;
+        return index;
+    }
+
+    //drops one reference, removing the vertex when none are left
+    private void release(int index)
+    {
+        references[index]--;
+        if (references[index] == 0)
+        {
+            //every pair leaving the vertex was evicted with its events, so the list is empty
+            neighborLists[index] = null;
+            neighborCounts[index] = 0;
+            indexer.remove(indexer.vertexAt(index));
+        }
+    }
+
+    //returns the pair slot of two vertices, or PairTable.NONE
+    private int pairOf(V source, V destination)
+    {
+        int sourceIndex = indexer.indexOf(source), destIndex = indexer.indexOf(destination);
+        if (sourceIndex < 0 || destIndex < 0)
+        {
+            return PairTable.NONE;
+        }
+        return pairs.get(sourceIndex, destIndex);
+    }
+
+    private int allocatePair()
+    {
+        if (freePairCount > 0)
+        {
+            return freePairs[--freePairCount];
+        }
+        if (pairHighWater == pairCounts.length)
+        {
+            int capacity = pairHighWater * 2;
+            pairCounts = Arrays.copyOf(pairCounts, capacity);
+            pairWeights = Arrays.copyOf(pairWeights, capacity);
+            pairTimestamps = Arrays.copyOf(pairTimestamps, capacity);
+            pairPositions = Arrays.copyOf(pairPositions, capacity);
+        }
+        return pairHighWater++;
+    }
+
+    private void releasePair(int pair)
+    {
+        if (freePairCount == freePairs.length)
+        {
+            freePairs = Arrays.copyOf(freePairs, freePairCount * 2);
+        }
+        freePairs[freePairCount++] = pair;
+    }
+
+    //appends a destination to a vertex's neighbor list and returns its position
+    private int addNeighbor(int sourceIndex, int destIndex)
+    {
+        int[] list = neighborLists[sourceIndex];
+        int count = neighborCounts[sourceIndex];
+        if (list == null)
+        {
+            list = new int[4];
+        }
+        else if (count == list.length)
+        {
+            list = Arrays.copyOf(list, count * 2);
+        }
+        neighborLists[sourceIndex] = list;
+        list[count] = destIndex;
+        neighborCounts[sourceIndex] = count + 1;
+        return count;
+    }
+
+    //removes a neighbor by moving the last one into its place, and updates that pair
+    private void removeNeighbor(int sourceIndex, int position)
+    {
+        int last = --neighborCounts[sourceIndex];
+        int moved = neighborLists[sourceIndex][last];
+        neighborLists[sourceIndex][position] = moved;
+        if (position != last)
+        {
+            pairPositions[pairs.get(sourceIndex, moved)] = position;
+        }
+    }
+
+    //events in one time slice, stored as primitive columns
+    private static class Bucket
+    {
+        private int[] sources = new int[8];
+        private int[] destinations = new int[8];
+        private int[] weights = new int[8];
+        private long[] timestamps = new long[8];
+        private int size = 0;
+
+        private void add(int source, int destination, int weight, long timestamp)
+        {
+            if (size == sources.length)
+            {
+                int capacity = size * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+            }
+            sources[size] = source;
+            destinations[size] = destination;
+            weights[size] = weight;
+            timestamps[size] = timestamp;
+            size++;
+        }
+    }
+}
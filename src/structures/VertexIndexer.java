@@ -0,0 +1,84 @@
+package structures;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Stack;
+
+/**
+ * Assigns matrix indices to vertices the same way DirectedGraph does: a Bijection
+ * between vertices and indices, plus a stack of free indices where the last entry
+ * is always the next never-used index.
+ *
+ * @param <V> the type of the vertices
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+class VertexIndexer<V>
+{
+    private final Bijection<V, Integer> table = new Bijection<>();
+    private final Stack<Integer> stack = new Stack<>();
+
+    VertexIndexer()
+    {
+        stack.push(0);
+    }
+
+    //returns the index of a vertex, or -1 if it is missing
+    int indexOf(V vertex)
+    {
+        Integer index = table.getValue(vertex);
+        return index == null ? -1 : index;
+    }
+
+    V vertexAt(int index)
+    {
+        return table.getKey(index);
+    }
+
+    boolean contains(V vertex)
+    {
+        return table.containsKey(vertex);
+    }
+
+    int size()
+    {
+        return table.keySet().size();
+    }
+
+    Set<V> vertices()
+    {
+        return new HashSet<>(table.keySet());
+    }
+
+    //assigns an index to a new vertex, the caller must check contains() first
+    int add(V vertex)
+    {
+        int newIndex = stack.pop();
+        if (stack.isEmpty())
+        {
+            stack.push(newIndex + 1);
+        }
+        table.add(vertex, newIndex);
+        return newIndex;
+    }
+
+    //releases the index of a vertex, returning it or -1 if the vertex is missing
+    int remove(V vertex)
+    {
+        Integer index = table.getValue(vertex);
+        if (index == null)
+        {
+            return -1;
+        }
+        table.removeKey(vertex);
+        stack.push(index);
+        return index;
+    }
+
+    void clear()
+    {
+        table.clear();
+        stack.clear();
+        stack.push(0);
+    }
+}
@@ -0,0 +1,29 @@
+package structures;
+
+/**
+ * Strategies for renumbering the vertices of a DirectedGraph so that connected
+ * vertices sit close together in the matrix. Edge direction is ignored when
+ * computing every order.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public enum VertexOrder
+{
+    /**
+     * Reverse Cuthill-McKee: a breadth-first order from a low-degree vertex of each
+     * component, visiting neighbors by increasing degree, then reversed. This keeps
+     * edges close to the matrix diagonal.
+     */
+    REVERSE_CUTHILL_MCKEE,
+
+    /**
+     * Vertices sorted by degree, highest first, so hubs share the first rows.
+     */
+    DEGREE_DESCENDING,
+
+    /**
+     * Plain breadth-first order, one component after another.
+     */
+    BFS
+}
@@ -0,0 +1,209 @@
+package tests;
+
+import structures.ChangeBatch;
+import structures.ChangeListener;
+import structures.DirectedGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the change events a DirectedGraph delivers to its listeners.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class ChangeEventsTest
+{
+    private DirectedGraph<String> graph;
+    private List<String> events;
+    private Set<ChangeBatch<String>> batches;
+    private ChangeListener<String> recorder;
+
+    /**
+     * Creates a graph with a listener that writes every event out as text.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        events = new ArrayList<>();
+        batches = new HashSet<>();
+        recorder = batch ->
+        {
+            batches.add(batch);
+            for (int i = 0; i < batch.size(); i++)
+            {
+                events.add(batch.type(i) + " " + batch.source(i) + " " + batch.destination(i)
+                        + " " + batch.weight(i) + " " + batch.previousWeight(i));
+            }
+        };
+        graph.addChangeListener(recorder);
+    }
+
+    /**
+     * Verifies that every kind of mutation is reported in order after a flush.
+     */
+    @Test
+    public void eventOrderTest()
+    {
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addEdge("a", "b", 4);
+        graph.addEdge("a", "b", 9); //duplicate, no event
+        graph.removeEdge("a", "b");
+        assertTrue("Events should wait for a flush", events.isEmpty());
+
+        graph.flushChanges();
+        assertEquals(4, events.size());
+        assertEquals("VERTEX_ADDED a null -1 -1", events.get(0));
+        assertEquals("VERTEX_ADDED b null -1 -1", events.get(1));
+        assertEquals("EDGE_ADDED a b 4 -1", events.get(2));
+        assertEquals("EDGE_REMOVED a b -1 4", events.get(3));
+
+        events.clear();
+        graph.flushChanges();
+        assertTrue("Delivered events should not repeat", events.isEmpty());
+
+        graph.clear();
+        graph.flushChanges();
+        assertEquals("CLEARED null null -1 -1", events.get(0));
+    }
+
+    /**
+     * Verifies that removing a vertex reports its incident edges first.
+     */
+    @Test
+    public void removeVertexTest()
+    {
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addVertex("c");
+        graph.addEdge("a", "b", 1);
+        graph.addEdge("b", "c", 2);
+        graph.addEdge("c", "c", 3);
+        graph.flushChanges();
+        events.clear();
+
+        graph.removeVertex("c");
+        graph.flushChanges();
+        assertEquals(3, events.size());
+        assertTrue(events.contains("EDGE_REMOVED b c -1 2"));
+        assertTrue("Self-loops should be reported once", events.contains("EDGE_REMOVED c c -1 3"));
+        assertEquals("VERTEX_REMOVED c null -1 -1", events.get(2));
+    }
+
+    /**
+     * Verifies that a full buffer is delivered on its own and that the buffer is reused.
+     */
+    @Test
+    public void bufferTest()
+    {
+        for (int i = 0; i < 5000; i++)
+        {
+            graph.addVertex("v" + i);
+        }
+        assertTrue("A full buffer should be delivered without a flush", events.size() > 0);
+        assertEquals(0, events.size() % 1024);
+        graph.flushChanges();
+        assertEquals(5000, events.size());
+        assertEquals("VERTEX_ADDED v4999 null -1 -1", events.get(4999));
+        assertEquals("Every delivery should reuse one buffer", 1, batches.size());
+    }
+
+    /**
+     * Verifies listener removal and positions outside the batch.
+     */
+    @Test
+    public void removeListenerTest()
+    {
+        graph.addVertex("a");
+        assertTrue(graph.removeChangeListener(recorder));
+        assertEquals("Pending events should be delivered on removal", 1, events.size());
+        assertFalse(graph.removeChangeListener(recorder));
+
+        graph.addVertex("b");
+        graph.flushChanges();
+        assertEquals("Removed listeners should hear nothing", 1, events.size());
+
+        graph.addChangeListener(batch ->
+        {
+            try
+            {
+                batch.type(batch.size());
+                fail("Positions past the end should be rejected");
+            }
+            catch (IndexOutOfBoundsException expected)
+            {
+                events.add("checked");
+            }
+        });
+        graph.addVertex("c");
+        graph.flushChanges();
+        assertEquals("checked", events.get(1));
+    }
+
+    /**
+     * Verifies that a throwing listener does not stop the others and that the batch is
+     * consumed anyway, so nothing is delivered twice.
+     */
+    @Test
+    public void throwingListenerTest()
+    {
+        int[] counted = new int[1];
+        graph.addChangeListener(batch ->
+        {
+            throw new IllegalStateException("listener failure");
+        });
+        graph.addChangeListener(batch -> counted[0] += batch.size());
+
+        graph.addVertex("a");
+        graph.addVertex("b");
+        try
+        {
+            graph.flushChanges();
+            fail("The listener's exception should reach the caller");
+        }
+        catch (IllegalStateException expected)
+        {
+            assertEquals("Listener failures should be rethrown as is", "listener failure", expected.getMessage());
+        }
+        assertEquals("Listeners before the failing one should get the batch", 2, events.size());
+        assertEquals("Listeners after the failing one should get the batch", 2, counted[0]);
+
+        graph.flushChanges(); //nothing pending, so the failing listener is not called
+        assertEquals("A consumed batch should not be delivered again", 2, counted[0]);
+
+        //a full buffer is delivered from inside a mutation; the mutation and its change survive
+        int delivered = counted[0];
+        int failures = 0;
+        for (int i = 0; i < 3000; i++)
+        {
+            try
+            {
+                graph.addVertex("v" + i);
+            }
+            catch (IllegalStateException expected)
+            {
+                failures++;
+            }
+        }
+        try
+        {
+            graph.flushChanges();
+        }
+        catch (IllegalStateException expected)
+        {
+            failures++;
+        }
+        assertTrue("Every delivery should report the failure", failures > 1);
+        assertEquals("Every vertex should be added", 3002, graph.vertexSize());
+        assertEquals("Every change should be delivered exactly once", 3000, counted[0] - delivered);
+    }
+}
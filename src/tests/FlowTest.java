@@ -0,0 +1,302 @@
+package tests;
+
+import algorithms.MaxFlow;
+import algorithms.MinimumArborescence;
+import graphs.Edge;
+import structures.DirectedGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies MaxFlow and MinimumArborescence on known examples and against brute force.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class FlowTest
+{
+    private DirectedGraph<String> graph;
+
+    /**
+     * Creates the textbook flow network from s to t.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (String vertex : new String[] {"s", "a", "b", "c", "d", "t"})
+        {
+            graph.addVertex(vertex);
+        }
+        graph.addEdge("s", "a", 16);
+        graph.addEdge("s", "c", 13);
+        graph.addEdge("a", "b", 12);
+        graph.addEdge("c", "a", 4);
+        graph.addEdge("b", "c", 9);
+        graph.addEdge("c", "d", 14);
+        graph.addEdge("d", "b", 7);
+        graph.addEdge("b", "t", 20);
+        graph.addEdge("d", "t", 4);
+    }
+
+    /**
+     * Verifies the flow value and that the cut edges add up to it.
+     */
+    @Test
+    public void maxFlowTest()
+    {
+        MaxFlow<String> flow = new MaxFlow<>(graph);
+        assertEquals("Flow should match the known value", 23, flow.maxFlow("s", "t"));
+        assertEquals("A repeated solve should give the same value", 23, flow.maxFlow("s", "t"));
+
+        long cut = 0;
+        for (Edge<String> edge : flow.minCutEdges())
+        {
+            cut += edge.getWeight();
+        }
+        assertEquals("Cut weight should equal the flow", 23, cut);
+        Set<String> side = flow.minCutSourceSide();
+        assertTrue("Source should be on the source side", side.contains("s"));
+        assertFalse("Sink should not be on the source side", side.contains("t"));
+
+        graph.addEdge("a", "t", 5);
+        assertEquals("Solver should see graph changes", 28, flow.maxFlow("s", "t"));
+        assertEquals("Unconnected vertices should carry no flow", 0, flow.maxFlow("t", "s"));
+    }
+
+    /**
+     * Verifies the argument and state checks.
+     */
+    @Test
+    public void maxFlowErrorTest()
+    {
+        MaxFlow<String> flow = new MaxFlow<>(graph);
+        try
+        {
+            flow.minCutEdges();
+            fail("Cut should require a solve");
+        }
+        catch (IllegalStateException expected)
+        {
+            //expected
+        }
+        try
+        {
+            flow.maxFlow("s", "s");
+            fail("Source and sink should differ");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            //expected
+        }
+        try
+        {
+            flow.maxFlow("s", "x");
+            fail("Missing vertices should be rejected");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            //expected
+        }
+    }
+
+    /**
+     * Verifies flow values against the cheapest cut found by trying every vertex split.
+     */
+    @Test
+    public void randomMaxFlowTest()
+    {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 30; trial++)
+        {
+            DirectedGraph<Integer> network = randomGraph(random, 7, 0.4);
+            MaxFlow<Integer> flow = new MaxFlow<>(network);
+            long best = Long.MAX_VALUE;
+            for (int mask = 0; mask < 1 << 5; mask++)
+            {
+                //vertex 0 is the source, 6 the sink, 1..5 go where the mask puts them
+                long cut = 0;
+                for (Edge<Integer> edge : network.edges())
+                {
+                    if (sourceSide(edge.getSource(), mask) && !sourceSide(edge.getDestination(), mask))
+                    {
+                        cut += edge.getWeight();
+                    }
+                }
+                best = Math.min(best, cut);
+            }
+            assertEquals("Flow should equal the minimum cut", best, flow.maxFlow(0, 6));
+        }
+    }
+
+    /**
+     * Verifies an arborescence that has to break a cycle.
+     */
+    @Test
+    public void arborescenceTest()
+    {
+        DirectedGraph<String> tree = new DirectedGraph<>();
+        for (String vertex : new String[] {"r", "a", "b", "c"})
+        {
+            tree.addVertex(vertex);
+        }
+        tree.addEdge("r", "a", 10);
+        tree.addEdge("r", "b", 12);
+        tree.addEdge("a", "b", 1);
+        tree.addEdge("b", "c", 2);
+        tree.addEdge("c", "a", 1);
+
+        MinimumArborescence<String> solver = new MinimumArborescence<>(tree);
+        Set<Edge<String>> edges = solver.solve("r");
+        assertEquals("Every non-root vertex should get one edge", 3, edges.size());
+        assertEquals("Total should be the cheapest way in", 13, solver.totalWeight());
+        assertTrue(edges.contains(new Edge<>("r", "a", 10)));
+        assertTrue(edges.contains(new Edge<>("a", "b", 1)));
+        assertTrue(edges.contains(new Edge<>("b", "c", 2)));
+
+        tree.addVertex("d");
+        assertNull("Unreachable vertices should leave no arborescence", solver.solve("r"));
+        assertEquals(0, solver.totalWeight());
+    }
+
+    /**
+     * Verifies arborescence weights against every choice of one incoming edge per vertex.
+     */
+    @Test
+    public void randomArborescenceTest()
+    {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 60; trial++)
+        {
+            int n = 6;
+            DirectedGraph<Integer> network = randomGraph(random, n, 0.5);
+            MinimumArborescence<Integer> solver = new MinimumArborescence<>(network);
+            Set<Edge<Integer>> edges = solver.solve(0);
+            long best = bruteForceArborescence(network, n);
+
+            if (best == Long.MAX_VALUE)
+            {
+                assertNull("No arborescence should be found", edges);
+                continue;
+            }
+            assertNotNull("An arborescence should be found", edges);
+            assertEquals("Weight should be minimal", best, solver.totalWeight());
+            long sum = 0;
+            Map<Integer, Integer> parent = new HashMap<>();
+            for (Edge<Integer> edge : edges)
+            {
+                sum += edge.getWeight();
+                assertNull("Each vertex should have one parent", parent.put(edge.getDestination(), edge.getSource()));
+            }
+            assertEquals("Edge weights should add up to the total", best, sum);
+            for (int v = 1; v < n; v++)
+            {
+                int u = v;
+                for (int steps = 0; u != 0; steps++)
+                {
+                    assertTrue("Parents should lead to the root", steps < n);
+                    u = parent.get(u);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that a solver reused across roots and graph changes, whose round workspaces
+     * carry over between solves, agrees with a fresh solver every time.
+     */
+    @Test
+    public void reusedSolverTest()
+    {
+        Random random = new Random(23);
+        DirectedGraph<Integer> network = randomGraph(random, 12, 0.3);
+        MinimumArborescence<Integer> solver = new MinimumArborescence<>(network);
+        for (int trial = 0; trial < 40; trial++)
+        {
+            for (int root = 0; root < 12; root++)
+            {
+                MinimumArborescence<Integer> fresh = new MinimumArborescence<>(network);
+                Set<Edge<Integer>> expected = fresh.solve(root);
+                Set<Edge<Integer>> edges = solver.solve(root);
+                assertEquals("Reused and fresh solvers should agree on existence", expected == null, edges == null);
+                assertEquals("Reused and fresh solvers should agree on weight", fresh.totalWeight(), solver.totalWeight());
+            }
+            int source = random.nextInt(12), destination = random.nextInt(12);
+            if (!network.removeEdge(source, destination) && source != destination)
+            {
+                network.addEdge(source, destination, random.nextInt(20));
+            }
+        }
+    }
+
+    private static boolean sourceSide(int vertex, int mask)
+    {
+        return vertex == 0 || (vertex != 6 && (mask & (1 << (vertex - 1))) != 0);
+    }
+
+    private static DirectedGraph<Integer> randomGraph(Random random, int n, double density)
+    {
+        DirectedGraph<Integer> network = new DirectedGraph<>();
+        for (int i = 0; i < n; i++)
+        {
+            network.addVertex(i);
+        }
+        for (int i = 0; i < n; i++)
+        {
+            for (int j = 0; j < n; j++)
+            {
+                if (i != j && random.nextDouble() < density)
+                {
+                    network.addEdge(i, j, random.nextInt(20));
+                }
+            }
+        }
+        return network;
+    }
+
+    //tries every parent choice for vertices 1..n-1 and keeps the cheapest acyclic one
+    private static long bruteForceArborescence(DirectedGraph<Integer> network, int n)
+    {
+        int[] parent = new int[n];
+        return search(network, n, 1, parent);
+    }
+
+    private static long search(DirectedGraph<Integer> network, int n, int vertex, int[] parent)
+    {
+        if (vertex == n)
+        {
+            long total = 0;
+            for (int v = 1; v < n; v++)
+            {
+                int u = v;
+                for (int steps = 0; u != 0; steps++)
+                {
+                    if (steps == n)
+                    {
+                        return Long.MAX_VALUE;
+                    }
+                    u = parent[u];
+                }
+                total += network.edgeWeight(parent[v], v);
+            }
+            return total;
+        }
+        long best = Long.MAX_VALUE;
+        for (int u = 0; u < n; u++)
+        {
+            if (u != vertex && network.containsEdge(u, vertex))
+            {
+                parent[vertex] = u;
+                best = Math.min(best, search(network, n, vertex + 1, parent));
+            }
+        }
+        return best;
+    }
+}
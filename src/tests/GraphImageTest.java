@@ -0,0 +1,218 @@
+package tests;
+
+import graphs.Edge;
+import io.GraphImage;
+import io.MappedGraph;
+import structures.DirectedGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies writing and mapping graph images.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class GraphImageTest
+{
+    private Path file;
+
+    /**
+     * Creates a temporary image file.
+     * @throws IOException if the file cannot be created
+     */
+    @Before
+    public void setup() throws IOException
+    {
+        file = Files.createTempFile("graph", ".img");
+    }
+
+    /**
+     * Deletes the temporary image file.
+     * @throws IOException if the file cannot be deleted
+     */
+    @After
+    public void teardown() throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Verifies that a mapped image answers like the graph it was written from, and that
+     * vertices are decoded only when touched.
+     * @throws IOException if the image cannot be written or read
+     */
+    @Test
+    public void roundTripTest() throws IOException
+    {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 300; i++)
+        {
+            graph.addVertex("v" + i);
+        }
+        graph.addVertex("caf\u00e9");
+        graph.removeVertex("v7"); //leave a hole in the matrix
+        for (int i = 0; i < 3000; i++)
+        {
+            graph.addEdge("v" + random.nextInt(300), "v" + random.nextInt(300), random.nextInt(1000));
+        }
+        graph.addEdge("caf\u00e9", "v1", 3);
+        assertEquals(graph.edgeSize(), GraphImage.write(graph, file, Function.identity()));
+
+        int[] decodes = new int[1];
+        MappedGraph<String> mapped = GraphImage.open(file, Function.identity(), name ->
+        {
+            decodes[0]++;
+            return name;
+        });
+        assertEquals("Opening should decode nothing", 0, decodes[0]);
+        assertEquals(graph.vertexSize(), mapped.vertexSize());
+        assertEquals(graph.edgeSize(), mapped.edgeSize());
+
+        assertEquals(3, mapped.edgeWeight("caf\u00e9", "v1"));
+        assertTrue("A lookup should decode only what it touches", mapped.decodedCount() <= 4);
+        assertFalse(mapped.containsVertex("v7"));
+        assertFalse(mapped.containsVertex("nope"));
+        assertEquals(-1, mapped.edgeWeight("v1", "nope"));
+
+        for (int i = 0; i < 300; i++)
+        {
+            for (int j = 1; j < 300 && i != 7; j += 7)
+            {
+                assertEquals(graph.edgeWeight("v" + i, "v" + j), mapped.edgeWeight("v" + i, "v" + j));
+            }
+        }
+        assertEquals(graph.vertices(), mapped.vertices());
+        assertEquals(graph.edges(), mapped.edges());
+        assertEquals("Each vertex should be decoded once", graph.vertexSize(), decodes[0]);
+
+        Set<String> successors = new HashSet<>();
+        for (Edge<String> edge : graph.edges())
+        {
+            if (edge.getSource().equals("v3"))
+            {
+                successors.add(edge.getDestination());
+            }
+        }
+        assertEquals(successors, mapped.successors("v3"));
+    }
+
+    /**
+     * Verifies images of non-matrix graphs, whose edges arrive unsorted, and of empty graphs.
+     * @throws IOException if the image cannot be written or read
+     */
+    @Test
+    public void otherGraphsTest() throws IOException
+    {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < 50; i++)
+        {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 50; i++)
+        {
+            graph.addEdge(i, 49 - i, i);
+            graph.addEdge(i, (i * 7) % 50, i + 1);
+        }
+        Set<Integer> half = new HashSet<>();
+        for (int i = 0; i < 50; i += 2)
+        {
+            half.add(i);
+        }
+        GraphImage.write(graph.inducedSubgraph(half), file, String::valueOf);
+        MappedGraph<Integer> mapped = GraphImage.open(file, String::valueOf, Integer::valueOf);
+        assertEquals(graph.inducedSubgraph(half).edges(), mapped.edges());
+        assertEquals(graph.inducedSubgraph(half).vertices(), mapped.vertices());
+
+        GraphImage.write(new DirectedGraph<Integer>(), file, String::valueOf);
+        MappedGraph<Integer> empty = GraphImage.open(file, String::valueOf, Integer::valueOf);
+        assertEquals(0, empty.vertexSize());
+        assertFalse(empty.containsVertex(1));
+    }
+
+    /**
+     * Verifies that threads decoding the same vertices at once all get the cached ones.
+     * @throws Exception if the image cannot be written or a reader fails
+     */
+    @Test
+    public void concurrentDecodeTest() throws Exception
+    {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        for (int i = 0; i < 500; i++)
+        {
+            graph.addVertex("v" + i);
+            graph.addEdge("v" + i, "v" + (i / 2), i);
+        }
+        GraphImage.write(graph, file, Function.identity());
+        MappedGraph<String> mapped = GraphImage.open(file, Function.identity(), String::new);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try
+        {
+            Set<Future<Set<String>>> readers = new HashSet<>();
+            for (int t = 0; t < 8; t++)
+            {
+                readers.add(pool.submit(mapped::vertices));
+            }
+            for (Future<Set<String>> reader : readers)
+            {
+                assertEquals(graph.vertices(), reader.get());
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        assertEquals("Every vertex should be cached once", 500, mapped.decodedCount());
+        assertEquals(graph.edges(), mapped.edges());
+    }
+
+    /**
+     * Verifies that mutators and bad files are rejected.
+     * @throws IOException if the image cannot be written
+     */
+    @Test
+    public void rejectionTest() throws IOException
+    {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.addVertex("a");
+        GraphImage.write(graph, file, Function.identity());
+        MappedGraph<String> mapped = GraphImage.open(file, Function.identity(), Function.identity());
+        try
+        {
+            mapped.addVertex("b");
+            fail("Mapped graphs should be read-only");
+        }
+        catch (UnsupportedOperationException expected)
+        {
+            assertEquals(1, mapped.vertexSize());
+        }
+
+        Files.write(file, "not an image at all".getBytes(StandardCharsets.UTF_8));
+        try
+        {
+            GraphImage.open(file, Function.identity(), Function.identity());
+            fail("Other files should be rejected");
+        }
+        catch (IOException expected)
+        {
+            //expected
+        }
+    }
+}
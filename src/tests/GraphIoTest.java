@@ -0,0 +1,238 @@
+package tests;
+
+import io.BinaryGraphFormat;
+import io.EdgeListReader;
+import io.EdgeListWriter;
+import structures.DirectedGraph;
+import graphs.IGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies reading and writing graphs as edge lists, CSV and the binary format.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class GraphIoTest
+{
+    private Path file;
+
+    /**
+     * Creates a scratch file for each test.
+     * @throws IOException if the file cannot be created
+     */
+    @Before
+    public void setup() throws IOException
+    {
+        file = Files.createTempFile("graph", ".dat");
+    }
+
+    /**
+     * Deletes the scratch file.
+     * @throws IOException if the file cannot be deleted
+     */
+    @After
+    public void cleanup() throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Verifies that CSV files with headers, comments and default weights are parsed.
+     * @throws IOException if the file cannot be read
+     */
+    @Test
+    public void readCsvTest() throws IOException
+    {
+        Files.write(file, ("source,destination,weight\r\n# comment\nA,B,5\r\n B , C ,7\n\nC,A\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        long edges = EdgeListReader.csv(EdgeListReader.strings())
+                .setSkipHeader(true)
+                .setDefaultWeight(2)
+                .read(file, graph);
+
+        assertEquals("Three edge lines should be read", 3, edges);
+        assertEquals("Vertices should be added as they are seen", 3, graph.vertexSize());
+        assertEquals("Fields should be trimmed", 7, graph.edgeWeight("B", "C"));
+        assertEquals("Missing weights should use the default", 2, graph.edgeWeight("C", "A"));
+    }
+
+    /**
+     * Verifies that lines spanning buffer boundaries are parsed correctly.
+     * @throws IOException if the file cannot be read
+     */
+    @Test
+    public void smallBufferTest() throws IOException
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++)
+        {
+            text.append(i).append('\t').append(i + 1).append("  ").append(i * 3).append('\n');
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        long[] progressCalls = {0};
+        long edges = EdgeListReader.edgeList(EdgeListReader.integers())
+                .setBufferSize(32)
+                .setProgressListener((bytes, total, count) -> progressCalls[0]++)
+                .read(file, graph);
+
+        assertEquals("Every line should be read", 200, edges);
+        assertEquals("Weights should be parsed", 597, graph.edgeWeight(199, 200));
+        assertTrue("Progress should be reported per buffer", progressCalls[0] > 1);
+    }
+
+    /**
+     * Verifies that a malformed line is reported.
+     * @throws IOException if the file cannot be written
+     */
+    @Test(expected = IOException.class)
+    public void malformedLineTest() throws IOException
+    {
+        Files.write(file, "A,B,x1\n".getBytes(StandardCharsets.UTF_8));
+        EdgeListReader.csv(EdgeListReader.strings()).read(file, new DirectedGraph<>());
+    }
+
+    /**
+     * Verifies that a negative weight is reported with its line number.
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    public void negativeWeightTest() throws IOException
+    {
+        Files.write(file, "A,B,3\nB,C,-2\n".getBytes(StandardCharsets.UTF_8));
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        try
+        {
+            EdgeListReader.csv(EdgeListReader.strings()).read(file, graph);
+            fail("Negative weights should be rejected");
+        }
+        catch (IOException expected)
+        {
+            assertEquals("Line 2 has an invalid weight", expected.getMessage());
+            assertFalse("The bad edge should not be added", graph.containsEdge("B", "C"));
+        }
+    }
+
+    /**
+     * Verifies that written edge lists read back into the same graph.
+     * @throws IOException if the file cannot be read or written
+     */
+    @Test
+    public void edgeListRoundTripTest() throws IOException
+    {
+        DirectedGraph<String> graph = sampleGraph();
+        long written = new EdgeListWriter(',').write(graph, file);
+
+        DirectedGraph<String> copy = new DirectedGraph<>();
+        EdgeListReader.csv(EdgeListReader.strings()).read(file, copy);
+
+        assertEquals("Every edge should be written", graph.edgeSize(), written);
+        assertEquals("Edges should match after a round trip", graph.edges(), copy.edges());
+        assertEquals("Weights should match after a round trip", 40, copy.edgeWeight("\u00e9", "A"));
+    }
+
+    /**
+     * Verifies that the binary format reads back into the same graph.
+     * @throws IOException if the file cannot be read or written
+     */
+    @Test
+    public void binaryRoundTripTest() throws IOException
+    {
+        DirectedGraph<String> graph = sampleGraph();
+        graph.addVertex("lonely");
+        BinaryGraphFormat.write(graph, file, Function.identity());
+
+        IGraph<String> copy = new DirectedGraph<>();
+        long edges = BinaryGraphFormat.read(file, copy, Function.identity(), null);
+
+        assertEquals("Every edge should be read", graph.edgeSize(), edges);
+        assertEquals("Vertices should match after a round trip", graph.vertices(), copy.vertices());
+        for (String source : graph.vertices())
+        {
+            for (String destination : graph.vertices())
+            {
+                assertEquals("Weights should match after a round trip",
+                        graph.containsEdge(source, destination) ? graph.edgeWeight(source, destination) : -1,
+                        copy.containsEdge(source, destination) ? copy.edgeWeight(source, destination) : -1);
+            }
+        }
+    }
+
+    /**
+     * Verifies that corrupt counts, name lengths, vertex ids and weights in a binary file
+     * are reported as IOExceptions.
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    public void corruptBinaryTest() throws IOException
+    {
+        DirectedGraph<String> graph = sampleGraph();
+        BinaryGraphFormat.write(graph, file, Function.identity());
+        byte[] original = Files.readAllBytes(file);
+        int edges = graph.edgeSize(), sources = original.length - edges * 12;
+
+        byte[] negativeEdges = original.clone();
+        ByteBuffer.wrap(negativeEdges).putLong(12, -1L);
+        assertRejected(negativeEdges, "has invalid vertex or edge counts");
+        assertRejected(corrupt(original, 8, -1), "has invalid vertex or edge counts");
+        assertRejected(corrupt(original, 20, -3), "Vertex 0 has an invalid name length");
+        assertRejected(corrupt(original, sources, 4), "Edge 0 has an invalid vertex id");
+        assertRejected(corrupt(original, sources + edges * 4 + 4, -7), "Edge 1 has an invalid vertex id");
+        assertRejected(corrupt(original, sources + edges * 8, -5), "Edge 0 has an invalid weight");
+    }
+
+    //a copy of the file bytes with one int replaced
+    private static byte[] corrupt(byte[] original, int offset, int value)
+    {
+        byte[] bytes = original.clone();
+        ByteBuffer.wrap(bytes).putInt(offset, value);
+        return bytes;
+    }
+
+    //checks that reading the bytes fails with an IOException ending in the message
+    private void assertRejected(byte[] bytes, String message) throws IOException
+    {
+        Files.write(file, bytes);
+        try
+        {
+            BinaryGraphFormat.read(file, new DirectedGraph<>(), Function.identity(), null);
+            fail("A corrupt file should be rejected: " + message);
+        }
+        catch (IOException expected)
+        {
+            assertTrue("The error should say what is corrupt: " + expected.getMessage(),
+                    expected.getMessage().endsWith(message));
+        }
+    }
+
+    private DirectedGraph<String> sampleGraph()
+    {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        String[] vertices = {"A", "B", "C", "\u00e9"};
+        for (String vertex : vertices)
+        {
+            graph.addVertex(vertex);
+        }
+        for (int i = 0; i < vertices.length; i++)
+        {
+            graph.addEdge(vertices[i], vertices[(i + 1) % vertices.length], (i + 1) * 10);
+        }
+        graph.addEdge("A", "A", 0);
+        return graph;
+    }
+}
@@ -0,0 +1,293 @@
+package tests;
+
+import graphs.IGraph;
+import services.GraphService;
+import structures.DirectedGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies GraphService batching, concurrent reads and backpressure.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class GraphServiceTest
+{
+    private ExecutorService executor;
+    private DirectedGraph<Integer> graph;
+
+    /**
+     * Creates an empty graph and a pool for reads.
+     */
+    @Before
+    public void setup()
+    {
+        executor = Executors.newFixedThreadPool(8);
+        graph = new DirectedGraph<>();
+    }
+
+    /**
+     * Shuts the read pool down.
+     */
+    @After
+    public void teardown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifies that concurrent writes are all applied and visible to later reads.
+     * @throws Exception if a future fails
+     */
+    @Test
+    public void writeAndReadTest() throws Exception
+    {
+        try (GraphService<Integer> service = new GraphService<>(graph, executor, 10000))
+        {
+            List<CompletableFuture<Boolean>> writes = new ArrayList<>();
+            for (int i = 0; i < 100; i++)
+            {
+                writes.add(service.addVertex(i));
+            }
+            for (int i = 0; i < 99; i++)
+            {
+                writes.add(service.addEdge(i, i + 1, i));
+            }
+            for (CompletableFuture<Boolean> write : writes)
+            {
+                assertTrue("Every write should succeed", write.get());
+            }
+
+            assertEquals(199, service.appliedCount());
+            assertEquals(99, (int) service.read(IGraph::edgeSize).get());
+            assertEquals(42, (int) service.edgeWeight(42, 43).get());
+            assertFalse(service.containsEdge(43, 42).get());
+            assertFalse("Duplicate vertices should be reported", service.addVertex(5).get());
+        }
+    }
+
+    /**
+     * Verifies that a read refused by its executor fails its future instead of throwing.
+     * @throws Exception if the service cannot be closed
+     */
+    @Test
+    public void rejectedReadTest() throws Exception
+    {
+        executor.shutdown();
+        try (GraphService<Integer> service = new GraphService<>(graph, executor, 10))
+        {
+            CompletableFuture<Boolean> read = service.containsEdge(1, 2);
+            assertTrue("A refused read should fail its future", read.isCompletedExceptionally());
+            try
+            {
+                read.get();
+                fail("A refused read should not complete normally");
+            }
+            catch (ExecutionException e)
+            {
+                assertTrue("The failure should be a rejection", e.getCause() instanceof RejectedExecutionException);
+            }
+            assertTrue("Writes should still be applied", service.addVertex(1).get());
+        }
+    }
+
+    /**
+     * Verifies that writes queued while the writer is blocked are applied as one batch.
+     * @throws Exception if a future fails
+     */
+    @Test
+    public void batchingTest() throws Exception
+    {
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (GraphService<Integer> service = new GraphService<>(graph, executor, 100))
+        {
+            //hold the read lock so writes pile up behind the writer
+            CompletableFuture<Integer> blocker = service.read(g ->
+            {
+                readStarted.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return 0;
+            });
+            readStarted.await();
+
+            List<CompletableFuture<Boolean>> writes = new ArrayList<>();
+            for (int i = 0; i < 50; i++)
+            {
+                writes.add(service.addVertex(i));
+            }
+            release.countDown();
+            blocker.get();
+            for (CompletableFuture<Boolean> write : writes)
+            {
+                assertTrue(write.get());
+            }
+            assertTrue("Queued writes should share a batch", service.largestBatch() > 1);
+            assertTrue("Fewer batches than writes should be applied", service.batchCount() < 50);
+        }
+    }
+
+    /**
+     * Verifies that reads run in parallel with each other.
+     * @throws Exception if a future fails
+     */
+    @Test
+    public void parallelReadTest() throws Exception
+    {
+        CountDownLatch together = new CountDownLatch(4);
+        try (GraphService<Integer> service = new GraphService<>(graph, executor, 16))
+        {
+            List<CompletableFuture<Boolean>> reads = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+            {
+                reads.add(service.read(g ->
+                {
+                    //only returns if all four reads hold the read lock at once
+                    together.countDown();
+                    try
+                    {
+                        return together.await(10, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return false;
+                    }
+                }));
+            }
+            for (CompletableFuture<Boolean> read : reads)
+            {
+                assertTrue("Reads should overlap", read.get());
+            }
+        }
+    }
+
+    /**
+     * Verifies that a full queue rejects writes and counts them.
+     * @throws Exception if a future fails unexpectedly
+     */
+    @Test
+    public void backpressureTest() throws Exception
+    {
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (GraphService<Integer> service = new GraphService<>(graph, executor, 2))
+        {
+            //hold the read lock so the writer cannot apply anything
+            CompletableFuture<Integer> blocker = service.read(g ->
+            {
+                readStarted.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return g.vertexSize();
+            });
+            readStarted.await();
+
+            CompletableFuture<Boolean> first = service.addVertex(1);
+            while (service.queueDepth() > 0)
+            {
+                Thread.sleep(1);
+            }
+            CompletableFuture<Boolean> second = service.addVertex(2);
+            CompletableFuture<Boolean> third = service.addVertex(3);
+            CompletableFuture<Boolean> rejected = service.addVertex(4);
+
+            assertEquals("Queue should be full", 2, service.queueDepth());
+            assertEquals(0, service.remainingCapacity());
+            assertEquals(1, service.rejectedCount());
+            try
+            {
+                rejected.get();
+                fail("Write should have been rejected");
+            }
+            catch (ExecutionException e)
+            {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+
+            release.countDown();
+            assertEquals(0, (int) blocker.get());
+            assertTrue(first.get());
+            assertTrue(second.get());
+            assertTrue(third.get());
+        }
+        assertEquals(3, graph.vertexSize());
+    }
+
+    /**
+     * Verifies that close() applies queued writes and rejects new ones.
+     * @throws Exception if a future fails unexpectedly
+     */
+    @Test
+    public void closeTest() throws Exception
+    {
+        GraphService<Integer> service = new GraphService<>(graph, executor, 100);
+        CompletableFuture<Boolean> queued = service.addVertex(1);
+        service.close();
+        assertTrue("Queued writes should be applied", queued.get());
+
+        CompletableFuture<Boolean> late = service.addVertex(2);
+        assertTrue("Writes after close should be rejected", late.isCompletedExceptionally());
+        assertTrue(service.read(IGraph::vertexSize).isCompletedExceptionally());
+    }
+
+    /**
+     * Verifies that an exception thrown by a mutation fails only its own future.
+     * @throws Exception if a future fails unexpectedly
+     */
+    @Test
+    public void failedMutationTest() throws Exception
+    {
+        try (GraphService<Integer> service = new GraphService<>(graph, executor, 100))
+        {
+            service.addVertex(1);
+            service.addVertex(2);
+            CompletableFuture<Boolean> bad = service.write(g ->
+            {
+                throw new IllegalStateException("failing mutation");
+            });
+            CompletableFuture<Boolean> error = service.write(g ->
+            {
+                throw new AssertionError("failing with an error");
+            });
+            CompletableFuture<Boolean> good = service.addEdge(1, 2, 5);
+            assertTrue("Writes after an error should still be applied", good.get());
+            assertTrue("Bad mutations should fail their future", bad.isCompletedExceptionally());
+            try
+            {
+                error.get();
+                fail("Errors should fail their future");
+            }
+            catch (ExecutionException e)
+            {
+                assertTrue(e.getCause() instanceof AssertionError);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package tests;
+
+import structures.DirectedMultigraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies parallel edges and edge attributes in DirectedMultigraph.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class MultigraphTest
+{
+    private DirectedMultigraph<String> graph;
+
+    /**
+     * Creates a new graph with vertices A, B and C for each test.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedMultigraph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+    }
+
+    /**
+     * Verifies that parallel edges are all kept.
+     */
+    @Test
+    public void parallelEdgesTest()
+    {
+        int first = graph.addEdge("A", "B", 1);
+        int second = graph.addEdge("A", "B", 2);
+        graph.addEdge("B", "A", 3);
+
+        assertFalse("Edge ids should be distinct", first == second);
+        assertEquals("Both parallel edges should be counted", 2, graph.edgeCount("A", "B"));
+        assertEquals("Edge count should include parallel edges", 3, graph.edgeSize());
+        assertEquals("Edge list should include parallel edges", 3, graph.edges().size());
+        assertEquals("Missing vertices should give -1", -1, graph.addEdge("A", "Z", 1));
+    }
+
+    /**
+     * Verifies that attributes are stored per edge and labels are shared.
+     */
+    @Test
+    public void attributesTest()
+    {
+        int plain = graph.addEdge("A", "B", 1);
+        int tagged = graph.addEdge("A", "B", 2, 1000L, "road", 2.5);
+        int other = graph.addEdge("B", "C", 3, 2000L, "road", 0.5);
+
+        assertEquals("Unset timestamps should read 0", 0, graph.timestamp(plain));
+        assertNull("Unset labels should read null", graph.label(plain));
+        assertEquals("Timestamp should be stored", 1000L, graph.timestamp(tagged));
+        assertEquals("Cost should be stored", 2.5, graph.cost(tagged), 0.0);
+        assertEquals("Labels should be stored", "road", graph.label(other));
+
+        graph.setLabel(tagged, null);
+        assertNull("Labels should be clearable", graph.label(tagged));
+    }
+
+    /**
+     * Verifies that removing one parallel edge leaves the others in place.
+     */
+    @Test
+    public void removeEdgeTest()
+    {
+        int first = graph.addEdge("A", "B", 1);
+        int second = graph.addEdge("A", "B", 2);
+        int third = graph.addEdge("A", "B", 3);
+
+        assertTrue("Middle edge should be removed", graph.removeEdge(second));
+        assertFalse("Removed edge should not be removed twice", graph.removeEdge(second));
+        assertArrayEquals("Remaining edges should still be linked",
+                new int[] {third, first}, graph.edgeIds("A", "B"));
+
+        assertTrue("Head edge should be removed", graph.removeEdge(third));
+        assertEquals("Remaining edge should keep its weight", 1, graph.weight(first));
+        assertEquals("Removing the pair should report the count", 1, graph.removeEdges("A", "B"));
+        assertFalse("Pair should be gone", graph.containsEdge("A", "B"));
+        assertEquals("Edge count should be zero", 0, graph.edgeSize());
+    }
+
+    /**
+     * Verifies that removing a vertex removes every edge touching it and that
+     * ids are reused after growth.
+     */
+    @Test
+    public void removeVertexTest()
+    {
+        for (int i = 0; i < 50; i++)
+        {
+            graph.addEdge("A", "B", i, i, "x" + (i % 3), i);
+            graph.addEdge("C", "A", i);
+            graph.addEdge("B", "C", i);
+        }
+        assertEquals("All edges should be added", 150, graph.edgeSize());
+
+        assertTrue("Vertex should be removed", graph.removeVertex("A"));
+        assertEquals("Only edges away from A should remain", 50, graph.edgeSize());
+
+        int id = graph.addEdge("B", "B", 7);
+        assertTrue("Freed ids should be reused", id < 150);
+        assertNull("Reused ids should not keep old labels", graph.label(id));
+    }
+
+    /**
+     * Verifies pair lookups against a reference count across many pairs, so the pair
+     * table grows and removals shift probe runs.
+     */
+    @Test
+    public void manyPairsTest()
+    {
+        DirectedMultigraph<Integer> big = new DirectedMultigraph<>();
+        for (int i = 0; i < 60; i++)
+        {
+            big.addVertex(i);
+        }
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int step = 0; step < 20000; step++)
+        {
+            int source = random.nextInt(60), destination = random.nextInt(60);
+            long pair = (long) source * 60 + destination;
+            if (random.nextInt(3) == 0)
+            {
+                assertEquals(expected.getOrDefault(pair, 0).intValue(), big.removeEdges(source, destination));
+                expected.remove(pair);
+            }
+            else
+            {
+                big.addEdge(source, destination, step);
+                expected.merge(pair, 1, Integer::sum);
+            }
+        }
+        for (int source = 0; source < 60; source++)
+        {
+            for (int destination = 0; destination < 60; destination++)
+            {
+                assertEquals(expected.getOrDefault((long) source * 60 + destination, 0).intValue(),
+                        big.edgeCount(source, destination));
+            }
+        }
+    }
+}
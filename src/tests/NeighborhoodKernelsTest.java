@@ -0,0 +1,140 @@
+package tests;
+
+import algorithms.NeighborhoodKernels;
+import structures.DirectedGraph;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies NeighborhoodKernels on a small example and against brute force.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class NeighborhoodKernelsTest
+{
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Verifies a square with one diagonal, where direction and self-loops are ignored.
+     */
+    @Test
+    public void smallGraphTest()
+    {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        for (String vertex : new String[] {"a", "b", "c", "d", "e"})
+        {
+            graph.addVertex(vertex);
+        }
+        graph.addEdge("a", "b", 1);
+        graph.addEdge("b", "c", 1);
+        graph.addEdge("c", "d", 1);
+        graph.addEdge("d", "a", 1);
+        graph.addEdge("a", "c", 1);
+        graph.addEdge("c", "a", 1); //same undirected edge
+        graph.addEdge("b", "b", 1); //self-loop
+
+        NeighborhoodKernels<String> kernels = new NeighborhoodKernels<>(graph);
+        assertEquals(2, kernels.triangleCount());
+        Map<String, Long> triangles = kernels.triangles();
+        assertEquals(2L, (long) triangles.get("a"));
+        assertEquals(1L, (long) triangles.get("b"));
+        assertEquals(0L, (long) triangles.get("e"));
+
+        Map<String, Double> clustering = kernels.clusteringCoefficients();
+        assertEquals(2.0 / 3, clustering.get("a"), DELTA);
+        assertEquals(1.0, clustering.get("b"), DELTA);
+        assertEquals(0.0, clustering.get("e"), DELTA);
+        assertEquals((2.0 / 3 + 1 + 2.0 / 3 + 1) / 5, kernels.averageClustering(), DELTA);
+        assertEquals(6.0 / 8, kernels.globalClustering(), DELTA);
+
+        assertEquals(2, kernels.commonNeighbors("b", "d"));
+        assertEquals(1.0, kernels.jaccard("b", "d"), DELTA);
+        assertEquals(2 / Math.log(3), kernels.adamicAdar("b", "d"), DELTA);
+        assertEquals(0, kernels.commonNeighbors("a", "zzz"));
+
+        graph.addEdge("b", "d", 1);
+        assertEquals("Results should follow graph changes", 4, kernels.triangleCount());
+    }
+
+    /**
+     * Verifies every kernel against nested containsEdge loops on random graphs large
+     * enough to span several bitset words.
+     */
+    @Test
+    public void randomGraphTest()
+    {
+        Random random = new Random(3);
+        int n = 150;
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < n; i++)
+        {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 1500; i++)
+        {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+        }
+        graph.removeVertex(17); //leave a hole in the matrix
+
+        NeighborhoodKernels<Integer> kernels = new NeighborhoodKernels<>(graph);
+        Map<Integer, Long> triangles = kernels.triangles();
+        long total = 0;
+        for (int v = 0; v < n; v++)
+        {
+            if (v == 17)
+            {
+                assertFalse(triangles.containsKey(v));
+                continue;
+            }
+            long expected = 0;
+            for (int a = 0; a < n; a++)
+            {
+                for (int b = a + 1; b < n; b++)
+                {
+                    if (linked(graph, v, a) && linked(graph, v, b) && linked(graph, a, b))
+                    {
+                        expected++;
+                    }
+                }
+            }
+            assertEquals("Triangles at " + v, expected, (long) triangles.get(v));
+            total += expected;
+        }
+        assertEquals(total / 3, kernels.triangleCount());
+
+        for (int trial = 0; trial < 200; trial++)
+        {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            int shared = 0, either = 0;
+            double score = 0;
+            for (int w = 0; w < n; w++)
+            {
+                boolean nearA = linked(graph, a, w), nearB = linked(graph, b, w);
+                if (nearA && nearB)
+                {
+                    shared++;
+                    int degree = 0;
+                    for (int x = 0; x < n; x++)
+                    {
+                        degree += linked(graph, w, x) ? 1 : 0;
+                    }
+                    score += degree > 1 ? 1 / Math.log(degree) : 0;
+                }
+                either += nearA || nearB ? 1 : 0;
+            }
+            assertEquals(shared, kernels.commonNeighbors(a, b));
+            assertEquals(either == 0 ? 0 : (double) shared / either, kernels.jaccard(a, b), DELTA);
+            assertEquals(score, kernels.adamicAdar(a, b), DELTA);
+        }
+    }
+
+    private static boolean linked(DirectedGraph<Integer> graph, int a, int b)
+    {
+        return a != b && (graph.containsEdge(a, b) || graph.containsEdge(b, a));
+    }
+}
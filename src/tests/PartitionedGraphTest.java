@@ -0,0 +1,226 @@
+package tests;
+
+import partitions.HashPartitioner;
+import partitions.LabelPropagationPartitioner;
+import partitions.LoopbackTransport;
+import partitions.PartitionedGraph;
+import structures.DirectedGraph;
+import graphs.Edge;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies routing, cross-shard edges and batched traversal in PartitionedGraph.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class PartitionedGraphTest
+{
+    private static final int SHARDS = 4;
+    private LoopbackTransport<Integer> transport;
+    private PartitionedGraph<Integer> graph;
+
+    /**
+     * Creates a four-shard graph with a 20 vertex chain 0 -> 1 -> ... -> 19.
+     */
+    @Before
+    public void setup()
+    {
+        transport = new LoopbackTransport<>(SHARDS);
+        graph = new PartitionedGraph<>(new HashPartitioner<>(), transport);
+        for (int i = 0; i < 20; i++)
+        {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 19; i++)
+        {
+            graph.addEdge(i, i + 1, i);
+        }
+    }
+
+    /**
+     * Verifies that vertices and edges are spread across shards and counted once.
+     */
+    @Test
+    public void routingTest()
+    {
+        assertEquals("Vertex count should match", 20, graph.vertexSize());
+        assertEquals("Edge count should match", 19, graph.edgeSize());
+        assertFalse("Duplicate vertices should be rejected", graph.addVertex(3));
+        assertFalse("Duplicate edges should be rejected", graph.addEdge(3, 4, 1));
+        assertFalse("Edges to missing vertices should be rejected", graph.addEdge(3, 99, 1));
+        assertEquals("Weights should come from the owning shard", 7, graph.edgeWeight(7, 8));
+        assertEquals("Missing edges should report -1", -1, graph.edgeWeight(8, 7));
+        assertEquals("Edge set should include every edge", 19, graph.edges().size());
+    }
+
+    /**
+     * Verifies that removing a vertex drops edges into it held by other shards.
+     */
+    @Test
+    public void removeVertexTest()
+    {
+        assertTrue("Vertex should be removed", graph.removeVertex(10));
+        assertFalse("Vertex should not be removed twice", graph.removeVertex(10));
+        assertFalse("Edge into the removed vertex should be gone", graph.containsEdge(9, 10));
+        assertEquals("Both incident edges should be gone", 17, graph.edgeSize());
+        assertEquals("Vertex count should drop", 19, graph.vertexSize());
+    }
+
+    /**
+     * Verifies that shards only keep destinations that edges still point at.
+     */
+    @Test
+    public void destinationCleanupTest()
+    {
+        int referenced = 0;
+        for (int shard = 0; shard < SHARDS; shard++)
+        {
+            referenced += transport.shard(shard).destinationCount();
+        }
+        assertEquals("Each chain edge should reference one destination", 19, referenced);
+
+        for (int i = 0; i < 19; i++)
+        {
+            assertTrue("Chain edge should be removed", graph.removeEdge(i, i + 1));
+        }
+        for (int shard = 0; shard < SHARDS; shard++)
+        {
+            assertEquals("Destinations should go with their last edge", 0,
+                    transport.shard(shard).destinationCount());
+        }
+        assertEquals("Owned vertices should stay", 20, graph.vertexSize());
+    }
+
+    /**
+     * Verifies vertex removal against a DirectedGraph while edges and vertices churn, so
+     * the per-destination row lists are built up and torn down many times.
+     */
+    @Test
+    public void removalChurnTest()
+    {
+        DirectedGraph<Integer> expected = new DirectedGraph<>();
+        graph.clear();
+        Random random = new Random(29);
+        for (int step = 0; step < 4000; step++)
+        {
+            int source = random.nextInt(40), destination = random.nextInt(40);
+            switch (random.nextInt(4))
+            {
+                case 0:
+                    assertEquals("Vertex removals should agree", expected.removeVertex(source),
+                            graph.removeVertex(source));
+                    break;
+                case 1:
+                    assertEquals("Edge removals should agree", expected.removeEdge(source, destination),
+                            graph.removeEdge(source, destination));
+                    break;
+                default:
+                    expected.addVertex(source);
+                    expected.addVertex(destination);
+                    graph.addVertex(source);
+                    graph.addVertex(destination);
+                    assertEquals("Edge insertions should agree", expected.addEdge(source, destination, step),
+                            graph.addEdge(source, destination, step));
+            }
+        }
+        assertEquals("Vertices should match after churn", expected.vertices(), graph.vertices());
+        assertEquals("Edges should match after churn", expected.edges(), graph.edges());
+
+        for (Integer vertex : expected.vertices())
+        {
+            graph.removeVertex(vertex);
+        }
+        for (int shard = 0; shard < SHARDS; shard++)
+        {
+            assertEquals("Removing every vertex should empty the dictionaries", 0,
+                    transport.shard(shard).destinationCount());
+        }
+    }
+
+    /**
+     * Verifies that bulk insertions send one batch per shard.
+     */
+    @Test
+    public void batchInsertTest()
+    {
+        long before = transport.roundTrips();
+        assertEquals("Every new vertex should be added", 10,
+                graph.addVertices(Arrays.asList(20, 21, 22, 23, 24, 25, 26, 27, 28, 29)));
+        assertTrue("Vertex batches should need one round trip per shard", transport.roundTrips() - before <= SHARDS);
+
+        before = transport.roundTrips();
+        assertEquals("Edges to missing vertices should be skipped", 2, graph.addEdges(Arrays.asList(
+                new Edge<>(20, 21, 4), new Edge<>(29, 0, 5), new Edge<>(21, 99, 1), new Edge<>(0, 1, 9))));
+        assertTrue("Edge batches should need two round trips per shard",
+                transport.roundTrips() - before <= 2L * SHARDS);
+        assertEquals("Batched edges should keep their weight", 4, graph.edgeWeight(20, 21));
+        assertEquals("Existing edges should keep their weight", 0, graph.edgeWeight(0, 1));
+        assertEquals("Only the new edges should be counted", 21, graph.edgeSize());
+    }
+
+    /**
+     * Verifies that traversal sends one batched request per shard per level.
+     */
+    @Test
+    public void traversalTest()
+    {
+        graph.addEdge(0, 5, 1);
+        graph.addEdge(0, 6, 1);
+        long before = transport.roundTrips();
+
+        assertEquals("Everything after 15 should be reachable",
+                new HashSet<>(Arrays.asList(15, 16, 17, 18, 19)), graph.reachableFrom(15));
+        assertTrue("Each level should need at most one round trip per shard",
+                transport.roundTrips() - before <= 1 + 5L * SHARDS);
+        assertEquals("Whole chain should be reachable from 0", 20, graph.reachableFrom(0).size());
+    }
+
+    /**
+     * Verifies that label propagation keeps connected vertices together.
+     */
+    @Test
+    public void labelPropagationTest()
+    {
+        DirectedGraph<Integer> sample = new DirectedGraph<>();
+        for (int i = 0; i < 40; i++)
+        {
+            sample.addVertex(i);
+        }
+        //four dense groups of ten, joined by a single edge each
+        for (int group = 0; group < 4; group++)
+        {
+            for (int i = 0; i < 10; i++)
+            {
+                for (int j = 0; j < 10; j++)
+                {
+                    if (i != j)
+                    {
+                        sample.addEdge(group * 10 + i, group * 10 + j, 1);
+                    }
+                }
+            }
+            sample.addEdge(group * 10, ((group + 1) % 4) * 10, 1);
+        }
+
+        LabelPropagationPartitioner<Integer> partitioner = new LabelPropagationPartitioner<>(sample, SHARDS, 10);
+        int hashCut = 0;
+        HashPartitioner<Integer> hash = new HashPartitioner<>();
+        for (Edge<Integer> edge : sample.edges())
+        {
+            if (hash.shardOf(edge.getSource(), SHARDS) != hash.shardOf(edge.getDestination(), SHARDS))
+            {
+                hashCut++;
+            }
+        }
+        assertTrue("Label propagation should cut fewer edges than hashing",
+                partitioner.cutSize(sample) < hashCut);
+    }
+}
@@ -0,0 +1,148 @@
+package tests;
+
+import structures.DirectedGraph;
+import structures.GraphQueryCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies version tracking in DirectedGraph and invalidation in GraphQueryCache.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class QueryCacheTest
+{
+    private DirectedGraph<String> graph;
+    private GraphQueryCache<String> cache;
+
+    /**
+     * Creates two components, A -> B -> C and X -> Y, for each test.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (String vertex : new String[] {"A", "B", "C", "X", "Y"})
+        {
+            graph.addVertex(vertex);
+        }
+        graph.addEdge("A", "B", 2);
+        graph.addEdge("B", "C", 3);
+        graph.addEdge("X", "Y", 1);
+        cache = new GraphQueryCache<>(graph, 10);
+    }
+
+    /**
+     * Verifies that every successful mutation bumps the version, and failed ones do not.
+     */
+    @Test
+    public void versionTest()
+    {
+        long version = graph.version();
+        graph.addEdge("A", "B", 1);
+        assertEquals("A rejected edge should not change the version", version, graph.version());
+
+        graph.removeEdge("A", "B");
+        assertTrue("Removing an edge should change the version", graph.version() > version);
+
+        version = graph.version();
+        graph.clear();
+        assertTrue("Clearing should change the version", graph.version() > version);
+        assertTrue("Vertices should be accepted after clear()", graph.addVertex("A"));
+    }
+
+    /**
+     * Verifies that removing a vertex also drops its edges from the edge count.
+     */
+    @Test
+    public void removeVertexEdgeCountTest()
+    {
+        graph.removeVertex("B");
+        assertEquals("Edges touching B should no longer be counted", 1, graph.edgeSize());
+        assertEquals("Edge count should match the edge set", graph.edges().size(), graph.edgeSize());
+    }
+
+    /**
+     * Verifies hits, and that unrelated changes keep row-tracked entries valid.
+     */
+    @Test
+    public void selectiveInvalidationTest()
+    {
+        assertEquals("Reachable set should be computed",
+                new HashSet<>(Arrays.asList("A", "B", "C")), cache.reachableFrom("A"));
+        cache.reachableFrom("A");
+        assertEquals("Second lookup should hit", 1, cache.hitCount());
+
+        graph.addEdge("Y", "X", 4);
+        cache.reachableFrom("A");
+        assertEquals("Unrelated change should keep the entry", 2, cache.hitCount());
+
+        graph.addEdge("C", "X", 1);
+        assertTrue("Related change should recompute", cache.reachableFrom("A").contains("Y"));
+        assertEquals("Related change should count as a miss", 2, cache.missCount());
+        assertEquals("Stale entry should be counted", 1, cache.invalidationCount());
+    }
+
+    /**
+     * Verifies that whole-graph entries are dropped on any change.
+     */
+    @Test
+    public void wholeGraphInvalidationTest()
+    {
+        assertEquals("Edges should be computed", 3, cache.edges().size());
+        graph.addEdge("Y", "X", 4);
+        assertEquals("Edges should be recomputed after any change", 4, cache.edges().size());
+        assertEquals("Both lookups should miss", 2, cache.missCount());
+    }
+
+    /**
+     * Verifies cached shortest path distances.
+     */
+    @Test
+    public void distancesTest()
+    {
+        graph.addEdge("A", "C", 10);
+        Map<String, Long> distances = cache.distancesFrom("A");
+
+        assertEquals("Shorter path through B should win", Long.valueOf(5), distances.get("C"));
+        assertFalse("Unreachable vertices should be absent", distances.containsKey("X"));
+    }
+
+    /**
+     * Verifies that lookups of missing vertices are counted as misses.
+     */
+    @Test
+    public void missingVertexTest()
+    {
+        assertTrue("A missing vertex reaches nothing", cache.reachableFrom("Z").isEmpty());
+        assertTrue("A missing vertex has no distances", cache.distancesFrom("Z").isEmpty());
+        assertEquals("Missing vertices should count as misses", 2, cache.missCount());
+        assertEquals("Missing vertices should not count as hits", 0, cache.hitCount());
+        assertEquals("Missing vertices should lower the hit rate", 0.0, cache.hitRate(), 0.0);
+    }
+
+    /**
+     * Verifies least-recently-used eviction by weight.
+     */
+    @Test
+    public void evictionTest()
+    {
+        GraphQueryCache<String> small = new GraphQueryCache<>(graph, 2);
+        small.reachableFrom("A");
+        small.reachableFrom("B");
+        small.reachableFrom("A");
+        small.reachableFrom("X");
+
+        assertEquals("Cache should stay within its limit", 2, small.size());
+        assertEquals("One entry should be evicted", 1, small.evictionCount());
+        small.reachableFrom("A");
+        assertEquals("Recently used entry should survive", 2, small.hitCount());
+    }
+}
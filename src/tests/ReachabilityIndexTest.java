@@ -0,0 +1,181 @@
+package tests;
+
+import structures.DirectedGraph;
+import structures.ReachabilityIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies ReachabilityIndex against breadth-first search.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class ReachabilityIndexTest
+{
+    private static final int SIZE = 40;
+    private DirectedGraph<Integer> graph;
+    private ReachabilityIndex<Integer> index;
+
+    /**
+     * Creates an empty graph with 40 vertices and an index over it.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (int i = 0; i < SIZE; i++)
+        {
+            graph.addVertex(i);
+        }
+        index = new ReachabilityIndex<>(graph);
+    }
+
+    /**
+     * Verifies basic reachability, including cycles and missing vertices.
+     */
+    @Test
+    public void basicReachabilityTest()
+    {
+        index.addEdge(0, 1, 1);
+        index.addEdge(1, 2, 1);
+        index.addEdge(2, 0, 1);
+        index.addEdge(2, 3, 1);
+
+        assertTrue("Every vertex should reach itself", index.canReach(5, 5));
+        assertTrue("Cycle members should reach each other", index.canReach(2, 1));
+        assertTrue("Paths out of a cycle should be found", index.canReach(1, 3));
+        assertFalse("Edges should be directed", index.canReach(3, 0));
+        assertFalse("Missing vertices should not be reachable", index.canReach(0, 99));
+    }
+
+    /**
+     * Verifies that insertions are applied without rebuilding.
+     */
+    @Test
+    public void incrementalInsertTest()
+    {
+        for (int i = 0; i < SIZE - 1; i++)
+        {
+            index.addEdge(i, i + 1, 1);
+            assertTrue("New edge should extend reachability", index.canReach(0, i + 1));
+        }
+        assertEquals("Insertions should not trigger rebuilds", 1, index.rebuildCount());
+    }
+
+    /**
+     * Verifies that vertices added through the index survive a matrix resize.
+     */
+    @Test
+    public void growthTest()
+    {
+        for (int i = SIZE; i < SIZE * 3; i++)
+        {
+            assertTrue("Vertex should be added", index.addVertex(i));
+            index.addEdge(i - 1, i, 1);
+        }
+        assertTrue("Path across the resize should be found", index.canReach(SIZE - 1, SIZE * 3 - 1));
+        assertFalse("Earlier vertices should stay unreachable", index.canReach(SIZE, 0));
+        assertEquals("Growth should not trigger rebuilds", 1, index.rebuildCount());
+    }
+
+    /**
+     * Verifies that removals and outside changes are picked up.
+     */
+    @Test
+    public void removalTest()
+    {
+        index.addEdge(0, 1, 1);
+        index.addEdge(1, 2, 1);
+        index.removeEdge(1, 2);
+        index.removeEdge(0, 1);
+        assertFalse("Removed path should not be reachable", index.canReach(0, 2));
+        assertEquals("Several removals should share one rebuild", 2, index.rebuildCount());
+
+        graph.addEdge(0, 2, 1);
+        assertTrue("Direct graph changes should be noticed", index.canReach(0, 2));
+    }
+
+    /**
+     * Verifies that reweighting edges directly does not trigger a rebuild.
+     */
+    @Test
+    public void reweightTest()
+    {
+        index.addEdge(0, 1, 1);
+        index.addEdge(1, 2, 1);
+        int rebuilds = index.rebuildCount();
+        graph.setEdgeWeight(0, 1, 5);
+        graph.upsertEdge(1, 2, 7);
+        graph.updateWeights(new int[] {graph.indexOf(0)}, new int[] {graph.indexOf(1)}, new int[] {9});
+        assertTrue(index.canReach(0, 2));
+        assertEquals("Weight changes should not trigger rebuilds", rebuilds, index.rebuildCount());
+    }
+
+    /**
+     * Verifies random insertions, removals and new vertices against BFS.
+     */
+    @Test
+    public void randomizedTest()
+    {
+        Random random = new Random(42);
+        for (int step = 0; step < 400; step++)
+        {
+            int source = random.nextInt(SIZE), destination = random.nextInt(SIZE);
+            int action = random.nextInt(10);
+            if (action < 6)
+            {
+                index.addEdge(source, destination, 1);
+            }
+            else if (action < 9)
+            {
+                index.removeEdge(source, destination);
+            }
+            else
+            {
+                index.removeVertex(source);
+                index.addVertex(source);
+            }
+
+            if (step % 20 == 0)
+            {
+                for (int a = 0; a < SIZE; a++)
+                {
+                    Set<Integer> reached = bfs(a);
+                    for (int b = 0; b < SIZE; b++)
+                    {
+                        assertEquals("Index should match BFS for " + a + " => " + b,
+                                reached.contains(b), index.canReach(a, b));
+                    }
+                }
+            }
+        }
+    }
+
+    private Set<Integer> bfs(int start)
+    {
+        Set<Integer> reached = new HashSet<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        reached.add(start);
+        queue.add(start);
+        while (!queue.isEmpty())
+        {
+            int vertex = queue.poll();
+            for (int other = 0; other < SIZE; other++)
+            {
+                if (graph.containsEdge(vertex, other) && reached.add(other))
+                {
+                    queue.add(other);
+                }
+            }
+        }
+        return reached;
+    }
+}
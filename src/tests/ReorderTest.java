@@ -0,0 +1,121 @@
+package tests;
+
+import structures.DirectedGraph;
+import structures.VertexOrder;
+import graphs.Edge;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that DirectedGraph.reorder() renumbers vertices without changing the graph.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class ReorderTest
+{
+    private static final int SIZE = 30;
+    private DirectedGraph<Integer> graph;
+
+    /**
+     * Creates a path 0 - 1 - ... - 29 whose vertices are inserted in a scrambled order,
+     * with some vertices removed and re-added so the free list is in use.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (int i = 0; i < SIZE; i++)
+        {
+            graph.addVertex((i * 7) % SIZE);
+        }
+        graph.removeVertex(4);
+        graph.removeVertex(11);
+        graph.addVertex(11);
+        graph.addVertex(4);
+        for (int i = 0; i < SIZE - 1; i++)
+        {
+            graph.addEdge(i, i + 1, i + 100);
+        }
+    }
+
+    /**
+     * Verifies that every strategy keeps vertices, edges and weights.
+     */
+    @Test
+    public void preservesGraphTest()
+    {
+        Set<Edge<Integer>> edges = graph.edges();
+        Map<Edge<Integer>, Integer> weights = weights();
+        for (VertexOrder order : VertexOrder.values())
+        {
+            graph.reorder(order);
+            assertEquals("Vertex count should not change for " + order, SIZE, graph.vertexSize());
+            assertEquals("Edges should not change for " + order, edges, graph.edges());
+            assertEquals("Weights should not change for " + order, weights, weights());
+            for (int i = 0; i < SIZE; i++)
+            {
+                assertTrue("Indices should be compact for " + order, graph.indexOf(i) < SIZE);
+            }
+            assertTrue("Graph should stay usable after " + order, graph.addVertex(-1));
+            assertEquals("New vertices should take the next free index", SIZE, graph.indexOf(-1));
+            graph.removeVertex(-1);
+        }
+    }
+
+    /**
+     * Verifies that Reverse Cuthill-McKee brings path neighbors next to each other.
+     */
+    @Test
+    public void bandwidthTest()
+    {
+        int before = bandwidth();
+        graph.reorder(VertexOrder.REVERSE_CUTHILL_MCKEE);
+
+        assertTrue("Scrambled path should start with a wide band", before > 1);
+        assertEquals("A path should end up on the diagonal", 1, bandwidth());
+    }
+
+    /**
+     * Verifies that degree order puts the hub first.
+     */
+    @Test
+    public void degreeOrderTest()
+    {
+        for (int i = 0; i < SIZE; i++)
+        {
+            graph.addEdge(17, i, 1);
+        }
+        graph.reorder(VertexOrder.DEGREE_DESCENDING);
+
+        assertEquals("Highest degree vertex should get index 0", 0, graph.indexOf(17));
+    }
+
+    //largest index distance between the ends of an edge
+    private int bandwidth()
+    {
+        int bandwidth = 0;
+        for (Edge<Integer> edge : graph.edges())
+        {
+            bandwidth = Math.max(bandwidth,
+                    Math.abs(graph.indexOf(edge.getSource()) - graph.indexOf(edge.getDestination())));
+        }
+        return bandwidth;
+    }
+
+    private Map<Edge<Integer>, Integer> weights()
+    {
+        Map<Edge<Integer>, Integer> weights = new HashMap<>();
+        for (Edge<Integer> edge : graph.edges())
+        {
+            weights.put(edge, edge.getWeight());
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,109 @@
+package tests;
+
+import structures.DirectedGraph;
+import structures.SubgraphView;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies induced subgraph and ego network views over a DirectedGraph.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class SubgraphTest
+{
+    private DirectedGraph<String> graph;
+
+    /**
+     * Creates a chain A -> B -> C -> D -> E with a shortcut A -> C.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (String vertex : new String[] {"A", "B", "C", "D", "E"})
+        {
+            graph.addVertex(vertex);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("C", "D", 3);
+        graph.addEdge("D", "E", 4);
+        graph.addEdge("A", "C", 5);
+    }
+
+    /**
+     * Verifies that an induced subgraph keeps only edges between the chosen vertices.
+     */
+    @Test
+    public void inducedSubgraphTest()
+    {
+        SubgraphView<String> view = graph.inducedSubgraph(new HashSet<>(Arrays.asList("A", "C", "D", "Z")));
+
+        assertEquals("Unknown vertices should be ignored", 3, view.vertexSize());
+        assertEquals("Only edges between kept vertices should remain", 2, view.edgeSize());
+        assertTrue("Edge A -> C should be in the view", view.containsEdge("A", "C"));
+        assertFalse("Edge A -> B should not be in the view", view.containsEdge("A", "B"));
+        assertEquals("Weights should come from the parent", 3, view.edgeWeight("C", "D"));
+        assertEquals("Missing edges should report -1", -1, view.edgeWeight("B", "C"));
+    }
+
+    /**
+     * Verifies that ego networks stop at the requested number of hops.
+     */
+    @Test
+    public void egoNetworkTest()
+    {
+        assertEquals("Zero hops should only include the center",
+                1, graph.egoNetwork("A", 0).vertexSize());
+        assertEquals("One hop from A should reach B and C",
+                new HashSet<>(Arrays.asList("A", "B", "C")), graph.egoNetwork("A", 1).vertices());
+        assertEquals("Two hops from A should reach D",
+                new HashSet<>(Arrays.asList("A", "B", "C", "D")), graph.egoNetwork("A", 2).vertices());
+        assertEquals("A missing center should give an empty view",
+                0, graph.egoNetwork("Z", 3).vertexSize());
+    }
+
+    /**
+     * Verifies that views reflect later edge changes in the parent graph.
+     */
+    @Test
+    public void viewSharesStorageTest()
+    {
+        SubgraphView<String> view = graph.egoNetwork("A", 1);
+        graph.removeEdge("A", "B");
+
+        assertFalse("Removed edge should disappear from the view", view.containsEdge("A", "B"));
+    }
+
+    /**
+     * Verifies that a compacted copy is independent of the parent graph.
+     */
+    @Test
+    public void toGraphTest()
+    {
+        DirectedGraph<String> copy = graph.egoNetwork("B", 2).toGraph();
+
+        assertEquals("Copy should have the view's vertices", 3, copy.vertexSize());
+        assertEquals("Copy should have the view's edges", 2, copy.edgeSize());
+        assertEquals("Copy should keep edge weights", 3, copy.edgeWeight("C", "D"));
+
+        graph.removeEdge("B", "C");
+        assertTrue("Copy should not change with the parent", copy.containsEdge("B", "C"));
+    }
+
+    /**
+     * Verifies that views cannot be mutated.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnlyTest()
+    {
+        graph.egoNetwork("A", 1).addVertex("Q");
+    }
+}
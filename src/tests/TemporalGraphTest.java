@@ -0,0 +1,165 @@
+package tests;
+
+import graphs.Edge;
+import structures.DirectedGraph;
+import structures.TemporalGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies sliding-window eviction and snapshots in TemporalGraph.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class TemporalGraphTest
+{
+    private static final long WINDOW = 100;
+    private static final long BUCKET = 10;
+    private TemporalGraph<String> graph;
+
+    /**
+     * Creates a graph with a 100 unit window and 10 unit buckets for each test.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new TemporalGraph<>(WINDOW, BUCKET);
+    }
+
+    /**
+     * Verifies that events are added and queried while in the window.
+     */
+    @Test
+    public void addEdgeTest()
+    {
+        assertTrue("Event should be added", graph.addEdge("A", "B", 1, 5));
+        assertTrue("Repeated event should be added", graph.addEdge("A", "B", 4, 7));
+        graph.addEdge("A", "C", 2, 8);
+
+        assertEquals("Vertices should be added automatically", 3, graph.vertexSize());
+        assertEquals("Repeated pairs count as one edge", 2, graph.edgeSize());
+        assertEquals("Every event should be counted", 3, graph.eventSize());
+        assertEquals("Weight should come from the newest event", 4, graph.edgeWeight("A", "B"));
+        assertEquals("Neighbors should include both destinations",
+                new HashSet<>(Arrays.asList("B", "C")), graph.neighbors("A"));
+    }
+
+    /**
+     * Verifies that expired buckets are evicted as the window slides.
+     */
+    @Test
+    public void evictionTest()
+    {
+        graph.addEdge("A", "B", 1, 0);
+        graph.addEdge("B", "C", 2, 55);
+
+        assertEquals("Nothing should expire inside the window", 0, graph.advanceTo(99));
+        assertEquals("The first bucket should expire once it leaves the window", 1, graph.advanceTo(110));
+        assertFalse("Evicted edge should be gone", graph.containsEdge("A", "B"));
+        assertFalse("Vertices without events should be removed", graph.containsVertex("A"));
+        assertTrue("Newer edge should remain", graph.containsEdge("B", "C"));
+
+        assertFalse("Events older than the window should be rejected", graph.addEdge("X", "Y", 1, 5));
+        graph.advanceTo(1000);
+        assertEquals("Everything should be evicted", 0, graph.eventSize());
+        assertEquals("Memory should be released", 0, graph.vertexSize());
+    }
+
+    /**
+     * Verifies that a pair survives while any of its events are live.
+     */
+    @Test
+    public void repeatedPairTest()
+    {
+        graph.addEdge("A", "B", 1, 0);
+        graph.addEdge("A", "B", 9, 50);
+        graph.advanceTo(120);
+
+        assertTrue("Pair should remain while an event is live", graph.containsEdge("A", "B"));
+        assertEquals("One event should remain", 1, graph.eventCount("A", "B"));
+        assertEquals("Weight should come from the live event", 9, graph.edgeWeight("A", "B"));
+    }
+
+    /**
+     * Verifies snapshots of the current window and of an earlier time.
+     */
+    @Test
+    public void snapshotTest()
+    {
+        graph.addEdge("A", "B", 1, 10);
+        graph.addEdge("A", "B", 3, 30);
+        graph.addEdge("B", "C", 2, 60);
+
+        DirectedGraph<String> current = graph.snapshot();
+        assertEquals("Current snapshot should have every live edge", 2, current.edgeSize());
+        assertEquals("Snapshot weight should come from the newest event", 3, current.edgeWeight("A", "B"));
+
+        DirectedGraph<String> earlier = graph.snapshot(20);
+        assertEquals("Earlier snapshot should only see earlier events", 1, earlier.edgeSize());
+        assertEquals("Earlier snapshot should use the weight at that time", 1, earlier.edgeWeight("A", "B"));
+    }
+
+    /**
+     * Verifies that timestamps at both ends of the long range neither expire early nor
+     * wrap around.
+     */
+    @Test
+    public void extremeTimestampTest()
+    {
+        assertTrue("Events near Long.MIN_VALUE should be added", graph.addEdge("A", "B", 1, Long.MIN_VALUE + 5));
+        assertTrue("Later events near Long.MIN_VALUE should be added", graph.addEdge("B", "C", 2, Long.MIN_VALUE + 50));
+        assertTrue("Events inside the window should stay live", graph.containsEdge("A", "B"));
+        assertEquals("A recent event should be in the snapshot", 2, graph.snapshot().edgeSize());
+
+        assertTrue("Events near Long.MAX_VALUE should be added", graph.addEdge("C", "D", 3, Long.MAX_VALUE - 3));
+        assertEquals("The old events should be evicted", 1, graph.eventSize());
+        assertEquals("Advancing inside the last bucket should evict nothing", 0, graph.advanceTo(Long.MAX_VALUE));
+        assertTrue("The newest event should stay live", graph.containsEdge("C", "D"));
+        assertEquals("The snapshot should hold the newest event", 1, graph.snapshot().edgeSize());
+    }
+
+    /**
+     * Verifies neighbors, weights and snapshots against each other while many pairs are
+     * added and evicted. Buckets are one unit wide so eviction matches the snapshot window.
+     */
+    @Test
+    public void churnTest()
+    {
+        graph = new TemporalGraph<>(WINDOW, 1);
+        Random random = new Random(17);
+        for (int step = 0; step < 5000; step++)
+        {
+            graph.addEdge("v" + random.nextInt(30), "v" + random.nextInt(30), random.nextInt(50), step / 4);
+            if (step % 250 == 0)
+            {
+                DirectedGraph<String> snapshot = graph.snapshot();
+                assertEquals("Live pairs should match the snapshot", snapshot.edgeSize(), graph.edgeSize());
+                for (Edge<String> edge : snapshot.edges())
+                {
+                    assertEquals("Live weights should match the snapshot", edge.getWeight(),
+                            graph.edgeWeight(edge.getSource(), edge.getDestination()));
+                }
+                for (String vertex : graph.vertices())
+                {
+                    Set<String> expected = new HashSet<>();
+                    for (Edge<String> edge : snapshot.edges())
+                    {
+                        if (edge.getSource().equals(vertex))
+                        {
+                            expected.add(edge.getDestination());
+                        }
+                    }
+                    assertEquals("Neighbors should match the snapshot", expected, graph.neighbors(vertex));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package tests;
+
+import structures.ChangeType;
+import structures.DirectedGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies in-place edge weight updates on DirectedGraph.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class WeightUpdateTest
+{
+    private DirectedGraph<Integer> graph;
+
+    /**
+     * Creates a graph of 200 vertices where every vertex i has an edge to i + 1.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (int i = 0; i < 200; i++)
+        {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 199; i++)
+        {
+            graph.addEdge(i, i + 1, 1);
+        }
+    }
+
+    /**
+     * Verifies setEdgeWeight and that it keeps the edge count steady.
+     */
+    @Test
+    public void setEdgeWeightTest()
+    {
+        long version = graph.version(), structure = graph.structureVersion();
+        assertTrue(graph.setEdgeWeight(3, 4, 10));
+        assertEquals(10, graph.edgeWeight(3, 4));
+        assertEquals("Edge count should not change", 199, graph.edgeSize());
+        assertTrue("The version should move", graph.version() > version);
+        assertEquals("A reweight should not move the structure version", structure, graph.structureVersion());
+        graph.removeEdge(3, 4);
+        assertTrue("A removal should move the structure version", graph.structureVersion() > structure);
+        graph.upsertEdge(3, 4, 10);
+        assertEquals("An upsert that adds should move the structure version",
+                graph.version(), graph.structureVersion());
+
+        version = graph.version();
+        assertTrue("Setting the same weight should still succeed", graph.setEdgeWeight(3, 4, 10));
+        assertEquals("Setting the same weight should not count as a change", version, graph.version());
+
+        assertFalse("Missing edges should not be created", graph.setEdgeWeight(4, 3, 5));
+        assertFalse(graph.containsEdge(4, 3));
+        assertFalse(graph.setEdgeWeight(3, 999, 5));
+    }
+
+    /**
+     * Verifies upsertEdge for new and existing edges.
+     */
+    @Test
+    public void upsertEdgeTest()
+    {
+        assertEquals("New edges should report -1", -1, graph.upsertEdge(5, 0, 7));
+        assertEquals(200, graph.edgeSize());
+        assertEquals("Existing edges should report their old weight", 7, graph.upsertEdge(5, 0, 8));
+        assertEquals(8, graph.edgeWeight(5, 0));
+        assertEquals(200, graph.edgeSize());
+    }
+
+    /**
+     * Verifies that negative weights and unknown vertices are rejected.
+     */
+    @Test
+    public void rejectionTest()
+    {
+        try
+        {
+            graph.setEdgeWeight(1, 2, -1);
+            fail("Negative weights should be rejected");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            //expected
+        }
+        try
+        {
+            graph.addEdge(2, 1, -3);
+            fail("Negative weights should be rejected");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            //expected
+        }
+        try
+        {
+            graph.upsertEdge(1, 999, 2);
+            fail("Unknown vertices should be rejected");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            //expected
+        }
+        try
+        {
+            graph.updateWeights(new int[] {graph.indexOf(0), 9999}, new int[] {graph.indexOf(1), 0},
+                    new int[] {5, 5});
+            fail("Unknown indices should be rejected");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            assertEquals("Nothing should be written on a bad batch", 1, graph.edgeWeight(0, 1));
+        }
+    }
+
+    /**
+     * Verifies a bulk update large enough to run in parallel.
+     */
+    @Test
+    public void parallelUpdateWeightsTest()
+    {
+        int n = 1 << 15;
+        int[] sources = new int[n], destinations = new int[n], weights = new int[n];
+        for (int k = 0; k < n; k++)
+        {
+            int i = k % 199;
+            sources[k] = graph.indexOf(i);
+            destinations[k] = graph.indexOf(i == 198 ? 0 : i + 1);
+            weights[k] = i == 198 ? 5 : i + 100; //198 => 0 is missing and must be skipped
+        }
+        long version = graph.version();
+        assertEquals("Each existing edge should change once", 198, graph.updateWeights(sources, destinations, weights));
+        for (int i = 0; i < 198; i++)
+        {
+            assertEquals(i + 100, graph.edgeWeight(i, i + 1));
+        }
+        assertEquals(1, graph.edgeWeight(198, 199));
+        assertFalse(graph.containsEdge(198, 0));
+        assertEquals(199, graph.edgeSize());
+        assertEquals("A bulk update should move the version once", version + 1, graph.version());
+        assertEquals(graph.version(), graph.rowVersion(graph.indexOf(7)));
+        assertTrue(graph.rowVersion(graph.indexOf(198)) <= version);
+    }
+
+    /**
+     * Verifies that a parallel bulk update with repeated edges and no listener matches the
+     * same entries applied serially: the last weight of each edge wins, every entry that
+     * changes a weight is counted once, and the version moves once.
+     */
+    @Test
+    public void parallelDuplicatesTest()
+    {
+        int n = 1 << 16;
+        int[] sources = new int[n], destinations = new int[n], weights = new int[n];
+        for (int k = 0; k < n; k++)
+        {
+            int i = k % 199;
+            sources[k] = graph.indexOf(i);
+            destinations[k] = graph.indexOf(i + 1);
+            weights[k] = 100 + (k / 398) % 3; //each weight repeats twice, then cycles
+        }
+
+        DirectedGraph<Integer> serial = new DirectedGraph<>();
+        for (int i = 0; i < 200; i++)
+        {
+            serial.addVertex(i);
+        }
+        for (int i = 0; i < 199; i++)
+        {
+            serial.addEdge(i, i + 1, 1);
+        }
+        int expected = 0;
+        int chunk = 1000; //below the parallel threshold
+        for (int start = 0; start < n; start += chunk)
+        {
+            int end = Math.min(n, start + chunk);
+            expected += serial.updateWeights(Arrays.copyOfRange(sources, start, end),
+                    Arrays.copyOfRange(destinations, start, end), Arrays.copyOfRange(weights, start, end));
+        }
+
+        long version = graph.version();
+        assertEquals("The parallel count should match the serial count", expected,
+                graph.updateWeights(sources, destinations, weights));
+        for (int i = 0; i < 199; i++)
+        {
+            assertEquals("The last weight of each edge should win", serial.edgeWeight(i, i + 1),
+                    graph.edgeWeight(i, i + 1));
+        }
+        assertEquals("A bulk update should move the version once", version + 1, graph.version());
+    }
+
+    /**
+     * Verifies that a serial bulk update also moves the version once.
+     */
+    @Test
+    public void serialVersionTest()
+    {
+        long version = graph.version();
+        assertEquals("Both edges should change", 2, graph.updateWeights(
+                new int[] {graph.indexOf(0), graph.indexOf(1)}, new int[] {graph.indexOf(1), graph.indexOf(2)},
+                new int[] {5, 6}));
+        assertEquals("A bulk update should move the version once", version + 1, graph.version());
+        assertEquals("Touched rows should carry the new version", graph.version(), graph.rowVersion(graph.indexOf(1)));
+    }
+
+    /**
+     * Verifies that listeners receive weight changes from every update path.
+     */
+    @Test
+    public void weightChangeEventTest()
+    {
+        List<String> events = new ArrayList<>();
+        graph.addChangeListener(batch ->
+        {
+            for (int i = 0; i < batch.size(); i++)
+            {
+                if (batch.type(i) == ChangeType.WEIGHT_CHANGED)
+                {
+                    events.add(batch.source(i) + ">" + batch.destination(i) + " " + batch.previousWeight(i)
+                            + "=>" + batch.weight(i));
+                }
+            }
+        });
+        graph.setEdgeWeight(0, 1, 4);
+        graph.upsertEdge(0, 1, 6);
+        int[] sources = new int[1 << 15], destinations = new int[1 << 15], weights = new int[1 << 15];
+        Arrays.fill(sources, graph.indexOf(0));
+        Arrays.fill(destinations, graph.indexOf(1));
+        Arrays.fill(weights, 9);
+        assertEquals("Only the first copy should change the weight", 1,
+                graph.updateWeights(sources, destinations, weights));
+        graph.flushChanges();
+        assertEquals(3, events.size());
+        assertEquals("0>1 1=>4", events.get(0));
+        assertEquals("0>1 4=>6", events.get(1));
+        assertEquals("0>1 6=>9", events.get(2));
+    }
+}
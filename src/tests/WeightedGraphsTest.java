@@ -0,0 +1,110 @@
+package tests;
+
+import structures.DoubleDirectedGraph;
+import structures.LongDirectedGraph;
+import graphs.DoubleEdge;
+import graphs.LongEdge;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the long and double weighted graph variants.
+ *
+ * @author Tobie Sagun
+ * @version 1.0
+ */
+public class WeightedGraphsTest
+{
+    /**
+     * Verifies that long weights beyond the int range, and negative weights, are stored.
+     */
+    @Test
+    public void longWeightsTest()
+    {
+        LongDirectedGraph<String> graph = new LongDirectedGraph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+
+        assertTrue("Edge should be added", graph.addEdge("A", "B", 5_000_000_000L));
+        assertTrue("Negative weights are valid edges", graph.addEdge("B", "A", -1));
+        assertFalse("Duplicate edges should be rejected", graph.addEdge("A", "B", 1));
+
+        assertEquals("Large weight should be kept", 5_000_000_000L, graph.edgeWeight("A", "B"));
+        assertTrue("A weight of -1 is not a missing edge", graph.containsEdge("B", "A"));
+        assertEquals("Edge count should match", 2, graph.edgeSize());
+    }
+
+    /**
+     * Verifies that fractional weights are stored and reported through DoubleEdge.
+     */
+    @Test
+    public void doubleWeightsTest()
+    {
+        DoubleDirectedGraph<String> graph = new DoubleDirectedGraph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addEdge("A", "B", 0.25);
+
+        assertEquals("Fractional weight should be kept", 0.25, graph.edgeWeight("A", "B"), 0.0);
+        Set<DoubleEdge<String>> edges = graph.edges();
+        assertEquals("Edge set should have one edge", 1, edges.size());
+        assertEquals("Edge should report its weight", 0.25, edges.iterator().next().getWeight(), 0.0);
+    }
+
+    /**
+     * Verifies that NaN weights are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void nanWeightTest()
+    {
+        DoubleDirectedGraph<String> graph = new DoubleDirectedGraph<>();
+        graph.addVertex("A");
+        graph.addEdge("A", "A", Double.NaN);
+    }
+
+    /**
+     * Verifies that missing edges throw instead of returning a sentinel.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void missingWeightTest()
+    {
+        LongDirectedGraph<String> graph = new LongDirectedGraph<>();
+        graph.addVertex("A");
+        graph.edgeWeight("A", "A");
+    }
+
+    /**
+     * Verifies that removing a vertex drops its edges, across a resize, and that
+     * the graph is usable after clear().
+     */
+    @Test
+    public void removeAndClearTest()
+    {
+        LongDirectedGraph<Integer> graph = new LongDirectedGraph<>();
+        for (int i = 0; i < 100; i++)
+        {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 100; i++)
+        {
+            graph.addEdge(i, (i + 1) % 100, i);
+            graph.addEdge(i, i, i);
+        }
+        assertEquals("All edges should be added", 200, graph.edgeSize());
+
+        graph.removeVertex(70);
+        assertEquals("Incident edges should be removed", 197, graph.edgeSize());
+        assertFalse("Edge into removed vertex should be gone", graph.containsEdge(69, 70));
+
+        Set<LongEdge<Integer>> edges = graph.edges();
+        assertEquals("Edge set should match the edge count", 197, edges.size());
+
+        graph.clear();
+        assertTrue("Vertices should be accepted after clear()", graph.addVertex(1));
+        assertEquals("Graph should be empty after clear()", 0, graph.edgeSize());
+    }
+}